@@ -0,0 +1,53 @@
+package backend.jmh;
+
+import backend.model.EventImage;
+import backend.model.Events;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Deterministic events shaped like the production data: a few images and tags each.
+ */
+final class EventFixtures {
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 1, 1, 18, 0);
+
+    private EventFixtures() {
+    }
+
+    static List<Events> events(int count) {
+        List<Events> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Events event = new Events();
+            event.setId(new UUID(i, i));
+            event.setTitle("Event " + i);
+            event.setDescription("An evening of live music and food trucks in the old harbour, number " + i);
+            event.setStart(BASE.plusHours(i));
+            event.setEnd(BASE.plusHours(i + 3));
+            event.setLocation("Harbour Hall");
+            event.setCategory(i % 2 == 0 ? "music" : "sport");
+            event.setOrganizer("Eventy");
+            event.setIsPublic(true);
+            event.setAttendees(i % 100);
+            event.setMaxAttendees(150);
+            event.setTags(List.of("Live", "Outdoor", "Food", "Tag" + i % 10));
+            event.setUserId(new UUID(0, i % 50));
+            event.setCreatedAt(BASE);
+            event.setUpdatedAt(BASE);
+            List<EventImage> images = new ArrayList<>();
+            for (int j = 0; j < 3; j++) {
+                EventImage image = new EventImage();
+                image.setImageUrl("https://cdn.eventy.test/events/" + i + "/" + j + ".jpg");
+                image.setCaption("Photo " + j);
+                image.setIsPrimary(j == 0);
+                image.setOrder(j);
+                images.add(image);
+            }
+            event.setImages(images);
+            events.add(event);
+        }
+        return events;
+    }
+}
@@ -0,0 +1,69 @@
+package backend.jmh;
+
+import backend.dto.EventCursor;
+import backend.model.Events;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-memory steps left on the request path once filtering and ordering moved into SQL: tag
+ * normalisation on create, the page cursor, and the subscribed-id list the dashboard renders.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventPipelineBenchmark {
+    private Events event;
+    private EventCursor cursor;
+    private String encodedCursor;
+    private List<UUID> subscribedIds;
+
+    @Setup
+    public void setUp() {
+        event = EventFixtures.events(1).get(0);
+        cursor = new EventCursor(event.getStart(), event.getId());
+        encodedCursor = cursor.encode();
+        subscribedIds = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            subscribedIds.add(new UUID(i, i * 31L));
+        }
+    }
+
+    // EventService.createEvent
+    @Benchmark
+    public List<String> normalizeTags() {
+        return event.getTags().stream().map(String::toLowerCase).toList();
+    }
+
+    @Benchmark
+    public String encodeCursor() {
+        return cursor.encode();
+    }
+
+    @Benchmark
+    public EventCursor decodeCursor() {
+        return EventCursor.decode(encodedCursor);
+    }
+
+    // SubscriptionService.getSubscribedEventIds
+    @Benchmark
+    public List<String> subscribedIdsToStrings() {
+        return subscribedIds.stream().map(UUID::toString).toList();
+    }
+}
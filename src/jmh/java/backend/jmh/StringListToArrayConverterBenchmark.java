@@ -0,0 +1,37 @@
+package backend.jmh;
+
+import backend.model.StringListToArrayConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringListToArrayConverterBenchmark {
+    private final StringListToArrayConverter converter = new StringListToArrayConverter();
+    private final List<String> tags = List.of("live", "outdoor", "food", "tag7");
+    private final String[] column = {"live", "outdoor", "food", "tag7"};
+
+    @Benchmark
+    public String[] toDatabaseColumn() {
+        return converter.convertToDatabaseColumn(tags);
+    }
+
+    @Benchmark
+    public List<String> toEntityAttribute() {
+        return converter.convertToEntityAttribute(column);
+    }
+}
@@ -0,0 +1,56 @@
+package backend.cache;
+
+import backend.event.CatalogResyncEvent;
+import backend.event.EventChangedEvent;
+import backend.event.SeatsChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * A counter bumped after every committed write that can change what the read endpoints return: event
+ * writes, and subscription changes that move the attendee count of a public event. Validators
+ * derived from it let clients revalidate without the server reading or serializing anything. Writes
+ * made by other nodes arrive through {@link backend.event.EventChangeFeed}. Each node still answers with
+ * its own tags, so a client moving between nodes downloads once more but is never served a stale 304.
+ */
+@Component
+public class CatalogVersion {
+    // Distinguishes tags issued before a restart, when the counter starts again at zero
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private volatile State state = new State(0, System.currentTimeMillis());
+
+    public record State(long version, long lastModified) {
+    }
+
+    public State current() {
+        return state;
+    }
+
+    public String epoch() {
+        return epoch;
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent event) {
+        bump();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatsChanged(SeatsChangedEvent event) {
+        if (event.anyPublic()) {
+            bump();
+        }
+    }
+
+    @EventListener
+    public void onResync(CatalogResyncEvent event) {
+        bump();
+    }
+
+    private synchronized void bump() {
+        state = new State(state.version() + 1, System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,86 @@
+package backend.cache;
+
+import backend.model.Users;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Resolved {@link Users} behind {@code /api/users/me}, keyed by the token subject (a user id, or the
+ * email in tokens we issue ourselves), so repeat callers skip the pool. Entries live for {@code security.principal-cache.ttl} and are evicted least recently
+ * used first past {@code max-entries}; writes to a user evict it once they commit.
+ */
+@Component
+public class CurrentUserCache {
+    private final int maxEntries;
+    private final Duration ttl;
+    private final AtomicLong writeGeneration = new AtomicLong();
+    private final Map<String, Entry> entries;
+
+    public CurrentUserCache(@Value("${security.principal-cache.max-entries:10000}") int maxEntries,
+                            @Value("${security.principal-cache.ttl:PT5M}") Duration ttl) {
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > CurrentUserCache.this.maxEntries;
+            }
+        };
+    }
+
+    public Users get(String subject, Supplier<Users> loader) {
+        Instant now = Instant.now();
+        synchronized (this) {
+            Entry cached = entries.get(subject);
+            if (cached != null && now.isBefore(cached.expiresAt())) {
+                return cached.user();
+            }
+        }
+        long startGeneration = writeGeneration.get();
+        Users loaded = loader.get();
+        synchronized (this) {
+            // A write committed while we were loading: serve what we read but do not keep it
+            if (writeGeneration.get() == startGeneration) {
+                entries.put(subject, new Entry(loaded, now.plus(ttl)));
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Evicts the user under both subjects once the surrounding transaction commits, or immediately outside
+     * one. Takes the keys now, so pass the user before changing its email.
+     */
+    public void evict(Users user) {
+        List<String> subjects = List.of(user.getId().toString(), user.getEmail());
+        Runnable evict = () -> {
+            writeGeneration.incrementAndGet();
+            synchronized (this) {
+                subjects.forEach(entries::remove);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict.run();
+                }
+            });
+        } else {
+            evict.run();
+        }
+    }
+
+    private record Entry(Users user, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,143 @@
+package backend.cache;
+
+import backend.event.CatalogResyncEvent;
+import backend.event.EventChangedEvent;
+import backend.event.SeatsChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Holds the serialized JSON (plain and gzipped) of the dashboard read endpoints so repeat hits skip
+ * both the connection pool and Jackson. Every committed event write, made on this node or another (see
+ * {@link backend.event.EventChangeFeed}), and every seat change on a public event bumps the generation,
+ * which makes all entries stale at once; each is rebuilt by the next read of its key, so a write costs
+ * nothing up front. At most {@code dashboard.cache.max-entries} keys are held. Only loaders that query the
+ * database run in a transaction, so rebuilding from an in-memory index takes no pooled connection.
+ */
+@Component
+public class DashboardResponseCache {
+    private static final Logger logger = LoggerFactory.getLogger(DashboardResponseCache.class);
+
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int maxEntries;
+    private final Map<String, CachedResponse> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+
+    public DashboardResponseCache(ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${dashboard.cache.max-entries:64}") int maxEntries) {
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.maxEntries = maxEntries;
+        this.hits = meterRegistry.counter("dashboard.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("dashboard.cache.requests", "result", "miss");
+        meterRegistry.gaugeMapSize("dashboard.cache.entries", Tags.empty(), entries);
+    }
+
+    /**
+     * For loaders that read memory only.
+     */
+    public CachedResponse get(String key, Supplier<?> loader) {
+        return get(key, loader, false);
+    }
+
+    /**
+     * For loaders that query the database: the loader runs and its result is serialized in one read-only
+     * transaction, while lazy associations can still load.
+     */
+    public CachedResponse getFromDatabase(String key, Supplier<?> loader) {
+        return get(key, loader, true);
+    }
+
+    private CachedResponse get(String key, Supplier<?> loader, boolean fromDatabase) {
+        long current = generation.get();
+        CachedResponse cached = entries.get(key);
+        if (cached != null && cached.generation() == current) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        CachedResponse built = fromDatabase
+                ? readOnlyTransaction.execute(status -> serialize(loader.get(), current))
+                : serialize(loader.get(), current);
+        if (!entries.containsKey(key) && entries.size() >= maxEntries) {
+            evict(current);
+        }
+        // Only publish if no write committed while we were loading, otherwise the next reader rebuilds
+        entries.compute(key, (k, existing) ->
+                existing != null && existing.generation() > current ? existing : built);
+        return built;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent event) {
+        logger.debug("Dashboard cache invalidated by {} of event {}", event.type(), event.eventId());
+        generation.incrementAndGet();
+    }
+
+    // Dashboard lists show attendee counts of public events
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatsChanged(SeatsChangedEvent event) {
+        if (event.anyPublic()) {
+            generation.incrementAndGet();
+        }
+    }
+
+    @EventListener
+    public void onResync(CatalogResyncEvent event) {
+        generation.incrementAndGet();
+    }
+
+    private void evict(long current) {
+        entries.values().removeIf(entry -> entry.generation() != current);
+        // Still full of fresh entries: drop arbitrary ones, they are simply built again on next use
+        Iterator<CachedResponse> remaining = entries.values().iterator();
+        while (entries.size() >= maxEntries && remaining.hasNext()) {
+            remaining.next();
+            remaining.remove();
+        }
+    }
+
+    private CachedResponse serialize(Object value, long generation) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(value);
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+                gzip.write(json);
+            }
+            return new CachedResponse(json, buffer.toByteArray(), generation);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize dashboard response", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public record CachedResponse(byte[] json, byte[] gzip, long generation) {
+    }
+}
@@ -0,0 +1,161 @@
+package backend.cache;
+
+import backend.dto.FacetCount;
+import backend.event.CatalogResyncEvent;
+import backend.event.EventChangedEvent;
+import backend.event.EventChangedEvent.EventSnapshot;
+import backend.repository.EventRepository;
+import backend.repository.EventRepository.FacetCountRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Public-event counts per category and per tag. Built from two aggregate queries, then kept current
+ * from the before/after snapshots of every committed event write, on this node or another. A periodic
+ * resync corrects any drift.
+ * <p>
+ * Changes that arrive while a rebuild is reading the counts are held and applied to the new counts
+ * once they replace the old ones. One that committed just before a count was read but arrived after
+ * the rebuild started is then counted twice until the next resync.
+ */
+@Component
+public class EventFacetIndex {
+    private static final Logger logger = LoggerFactory.getLogger(EventFacetIndex.class);
+    private static final Comparator<FacetCount> BY_COUNT_THEN_NAME =
+            Comparator.comparingLong(FacetCount::count).reversed().thenComparing(FacetCount::name);
+
+    private final EventRepository eventRepository;
+    // Only one rebuild runs at a time
+    private final Object rebuildLock = new Object();
+    // Guarded by this
+    private Map<String, Long> categories = new HashMap<>();
+    private Map<String, Long> tags = new HashMap<>();
+    private List<EventChangedEvent> arrivedDuringRebuild;
+    private long resyncs;
+    private volatile boolean built;
+
+    public EventFacetIndex(EventRepository eventRepository) {
+        this.eventRepository = eventRepository;
+    }
+
+    public List<FacetCount> getCategories() {
+        ensureBuilt();
+        synchronized (this) {
+            return toSortedList(categories);
+        }
+    }
+
+    public List<FacetCount> getTags() {
+        ensureBuilt();
+        synchronized (this) {
+            return toSortedList(tags);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${events.facets.resync-interval:PT10M}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            load();
+        }
+    }
+
+    @EventListener
+    public synchronized void onResync(CatalogResyncEvent event) {
+        // Rebuilt by the next read; a rebuild already reading may have missed the changes too
+        resyncs++;
+        built = false;
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onEventChanged(EventChangedEvent event) {
+        if (arrivedDuringRebuild != null) {
+            arrivedDuringRebuild.add(event);
+        }
+        if (built) {
+            apply(event);
+        }
+    }
+
+    private void load() {
+        long startResyncs;
+        synchronized (this) {
+            startResyncs = resyncs;
+            arrivedDuringRebuild = new ArrayList<>();
+        }
+        try {
+            Map<String, Long> freshCategories = toMap(eventRepository.countPublicEventsByCategory());
+            Map<String, Long> freshTags = toMap(eventRepository.countPublicEventsByTag());
+            synchronized (this) {
+                categories = freshCategories;
+                tags = freshTags;
+                arrivedDuringRebuild.forEach(this::apply);
+                built = resyncs == startResyncs;
+            }
+            logger.debug("Rebuilt facet index with {} categories and {} tags", freshCategories.size(), freshTags.size());
+        } finally {
+            synchronized (this) {
+                arrivedDuringRebuild = null;
+            }
+        }
+    }
+
+    private void apply(EventChangedEvent event) {
+        apply(event.before(), -1);
+        apply(event.after(), 1);
+    }
+
+    private void apply(EventSnapshot snapshot, long delta) {
+        if (snapshot == null || !snapshot.isPublic()) {
+            return;
+        }
+        if (snapshot.category() != null) {
+            adjust(categories, snapshot.category(), delta);
+        }
+        // An event counts once per tag even if the tag is repeated
+        for (String tag : new LinkedHashSet<>(snapshot.tags())) {
+            adjust(tags, tag, delta);
+        }
+    }
+
+    private static void adjust(Map<String, Long> counts, String name, long delta) {
+        counts.merge(name, delta, (current, change) -> current + change > 0 ? current + change : null);
+    }
+
+    private void ensureBuilt() {
+        if (!built) {
+            synchronized (rebuildLock) {
+                if (!built) {
+                    load();
+                }
+            }
+        }
+    }
+
+    private static Map<String, Long> toMap(List<FacetCountRow> rows) {
+        Map<String, Long> counts = new HashMap<>();
+        rows.forEach(row -> counts.put(row.getName(), row.getCount()));
+        return counts;
+    }
+
+    private static List<FacetCount> toSortedList(Map<String, Long> counts) {
+        return counts.entrySet().stream()
+                .map(entry -> new FacetCount(entry.getKey(), entry.getValue()))
+                .sorted(BY_COUNT_THEN_NAME)
+                .toList();
+    }
+}
@@ -0,0 +1,159 @@
+package backend.cache;
+
+import backend.event.EventChangedEvent;
+import backend.repository.UserSubscriptionRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * The event ids each recently active user is subscribed to, held as compact {@link UuidHashSet}s.
+ * Filled from the database on first read and then written through by {@link backend.service.SubscriptionService}
+ * after each commit. Bounded by the {@code max-bytes} estimate, with every user weighing at least
+ * {@code max-bytes / max-users} so the user count stays within {@code max-users} as well.
+ * <p>
+ * Reads take no lock: cached sets are never changed in place, a write replaces the user's set with a
+ * changed copy.
+ */
+@Component
+public class SubscriptionMembershipCache {
+    private static final Logger logger = LoggerFactory.getLogger(SubscriptionMembershipCache.class);
+    private static final int STRIPES = 64;
+
+    private final UserSubscriptionRepository userSubscriptionRepository;
+    private final Cache<UUID, UuidHashSet> members;
+    // Bumped per user stripe on every committed write, so a load that raced a write is not cached
+    private final AtomicLongArray writeGenerations = new AtomicLongArray(STRIPES);
+    private final Counter hits;
+    private final Counter misses;
+
+    @Autowired
+    public SubscriptionMembershipCache(UserSubscriptionRepository userSubscriptionRepository, MeterRegistry meterRegistry,
+                                       @Value("${subscriptions.membership-cache.max-users:10000}") int maxUsers,
+                                       @Value("${subscriptions.membership-cache.max-bytes:67108864}") long maxBytes) {
+        this(userSubscriptionRepository, meterRegistry, maxUsers, maxBytes, ForkJoinPool.commonPool());
+    }
+
+    // The executor runs Caffeine's eviction; tests pass a direct one
+    SubscriptionMembershipCache(UserSubscriptionRepository userSubscriptionRepository, MeterRegistry meterRegistry,
+                                int maxUsers, long maxBytes, Executor maintenance) {
+        this.userSubscriptionRepository = userSubscriptionRepository;
+        long minWeight = Math.max(1, maxBytes / maxUsers);
+        this.members = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .<UUID, UuidHashSet>weigher((userId, set) -> (int) Math.min(Integer.MAX_VALUE, Math.max(minWeight, set.estimatedBytes())))
+                .executor(maintenance)
+                .build();
+        this.hits = meterRegistry.counter("subscriptions.membership.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("subscriptions.membership.cache.requests", "result", "miss");
+        meterRegistry.gauge("subscriptions.membership.cache.users", this, SubscriptionMembershipCache::userCount);
+    }
+
+    public List<UUID> getEventIds(UUID userId) {
+        UuidHashSet cached = members.getIfPresent(userId);
+        if (cached != null) {
+            hits.increment();
+            return cached.toList();
+        }
+        misses.increment();
+        return load(userId).toList();
+    }
+
+    /**
+     * Records subscriptions once the surrounding transaction commits, or immediately outside one.
+     */
+    public void subscribed(UUID userId, Collection<UUID> eventIds) {
+        afterCommit(userId, set -> eventIds.forEach(set::add));
+    }
+
+    /**
+     * Records unsubscriptions once the surrounding transaction commits, or immediately outside one.
+     */
+    public void unsubscribed(UUID userId, Collection<UUID> eventIds) {
+        afterCommit(userId, set -> eventIds.forEach(set::remove));
+    }
+
+    // Subscriptions of a deleted event are removed by the foreign key cascade
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent event) {
+        if (event.type() != EventChangedEvent.ChangeType.DELETED) {
+            return;
+        }
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            writeGenerations.incrementAndGet(stripe);
+        }
+        members.asMap().replaceAll((userId, set) -> {
+            if (!set.contains(event.eventId())) {
+                return set;
+            }
+            UuidHashSet changed = set.copy();
+            changed.remove(event.eventId());
+            return changed;
+        });
+    }
+
+    public int userCount() {
+        members.cleanUp();
+        return (int) members.estimatedSize();
+    }
+
+    public void clear() {
+        members.invalidateAll();
+    }
+
+    private UuidHashSet load(UUID userId) {
+        int stripe = stripe(userId);
+        long startGeneration = writeGenerations.get(stripe);
+        UuidHashSet loaded = UuidHashSet.of(userSubscriptionRepository.findEventIdsByUserId(userId));
+        // Checked under the entry's lock, which a write applying to this user also takes
+        members.asMap().compute(userId, (id, existing) ->
+                existing != null || writeGenerations.get(stripe) != startGeneration ? existing : loaded);
+        logger.debug("Loaded {} subscriptions for user {} into the membership cache", loaded.size(), userId);
+        return loaded;
+    }
+
+    private void afterCommit(UUID userId, Consumer<UuidHashSet> change) {
+        Runnable apply = () -> {
+            writeGenerations.incrementAndGet(stripe(userId));
+            // Users not held are loaded in full on their next read
+            members.asMap().computeIfPresent(userId, (id, cached) -> {
+                UuidHashSet changed = cached.copy();
+                change.accept(changed);
+                return changed;
+            });
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    private static int stripe(UUID userId) {
+        return userId.hashCode() & (STRIPES - 1);
+    }
+}
@@ -0,0 +1,148 @@
+package backend.cache;
+
+import backend.event.CatalogResyncEvent;
+import backend.event.EventChangedEvent;
+import backend.event.EventChangedEvent.EventSnapshot;
+import backend.model.Events;
+import backend.repository.EventRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The next {@code events.upcoming.index-size} public events in start order, held as detached entities
+ * so {@code /api/events/upcoming} can answer without a connection. Events that start are dropped on
+ * read; a write that touches the upcoming window marks the index stale and the next read reloads it.
+ */
+@Component
+public class UpcomingEventsIndex {
+    private static final Logger logger = LoggerFactory.getLogger(UpcomingEventsIndex.class);
+
+    private final EventRepository eventRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int capacity;
+    private final AtomicLong generation = new AtomicLong();
+    // A lock rather than synchronized: reload blocks on the database, which would pin a virtual thread
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private volatile Snapshot snapshot = new Snapshot(List.of(), false, -1);
+
+    public UpcomingEventsIndex(EventRepository eventRepository, EntityManager entityManager,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${events.upcoming.index-size:50}") int capacity) {
+        this.eventRepository = eventRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.capacity = capacity;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns up to {@code limit} public events starting at or after {@code now}. {@code limit} must
+     * not exceed {@link #capacity()}.
+     */
+    public List<Events> getUpcoming(int limit, LocalDateTime now) {
+        Snapshot current = snapshot;
+        if (current.generation() == generation.get()) {
+            List<Events> remaining = current.startingFrom(now);
+            // Enough left, or nothing further exists in the database
+            if (remaining.size() >= limit || current.complete()) {
+                return remaining.subList(0, Math.min(limit, remaining.size()));
+            }
+        }
+        List<Events> reloaded = reload(now, false).startingFrom(now);
+        return reloaded.subList(0, Math.min(limit, reloaded.size()));
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        if (inWindow(event.before(), now) || inWindow(event.after(), now)) {
+            generation.incrementAndGet();
+        }
+    }
+
+    @EventListener
+    public void onResync(CatalogResyncEvent event) {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Periodic reload, a safety net for changes that reached no listener, without a request paying for it.
+     */
+    @Scheduled(fixedDelayString = "${events.upcoming.refresh-interval:PT1M}")
+    public void refresh() {
+        reload(LocalDateTime.now(), true);
+    }
+
+    private Snapshot reload(LocalDateTime now, boolean force) {
+        reloadLock.lock();
+        try {
+            return reloadLocked(now, force);
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private Snapshot reloadLocked(LocalDateTime now, boolean force) {
+        long loading = generation.get();
+        Snapshot current = snapshot;
+        // Another reader may have reloaded while we waited for the lock
+        if (!force && current.generation() == loading
+                && (current.complete() || current.startingFrom(now).size() >= capacity)) {
+            return current;
+        }
+        List<Events> events = readOnlyTransaction.execute(status -> {
+            List<Events> loaded = eventRepository.findUpcomingEvents(now, Limit.of(capacity));
+            loaded.forEach(event -> {
+                Hibernate.initialize(event.getImages());
+                entityManager.detach(event);
+            });
+            return loaded;
+        });
+        Snapshot loaded = new Snapshot(List.copyOf(events), events.size() < capacity, loading);
+        snapshot = loaded;
+        logger.debug("Loaded {} upcoming events into the index", events.size());
+        return loaded;
+    }
+
+    private boolean inWindow(EventSnapshot state, LocalDateTime now) {
+        if (state == null || !state.isPublic() || state.start().isBefore(now)) {
+            return false;
+        }
+        List<Events> held = snapshot.events();
+        // Past the last held event and the index is full: the change cannot affect what we serve
+        return snapshot.complete() || held.size() < capacity || !state.start().isAfter(held.get(held.size() - 1).getStart());
+    }
+
+    private record Snapshot(List<Events> events, boolean complete, long generation) {
+
+        List<Events> startingFrom(LocalDateTime now) {
+            int first = 0;
+            while (first < events.size() && events.get(first).getStart().isBefore(now)) {
+                first++;
+            }
+            return events.subList(first, events.size());
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package backend.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Open-addressing set of UUIDs stored as (most, least) significant long pairs in a single
+ * {@code long[]}, about 16 bytes per element instead of ~80 for a {@code HashSet<UUID>}. Uses linear
+ * probing with backward-shift deletion, so there are no tombstones. The all-zero UUID marks empty
+ * slots and is tracked separately. Not thread-safe.
+ */
+public final class UuidHashSet {
+    private static final int MIN_CAPACITY = 4;
+    private static final float MAX_LOAD = 0.7f;
+
+    private long[] slots;
+    private int mask;
+    private int size;
+    private boolean containsNil;
+
+    public UuidHashSet() {
+        this(MIN_CAPACITY);
+    }
+
+    public UuidHashSet(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * MAX_LOAD < expectedSize) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    public static UuidHashSet of(Collection<UUID> values) {
+        UuidHashSet set = new UuidHashSet(values.size());
+        values.forEach(set::add);
+        return set;
+    }
+
+    /**
+     * Independent copy, for callers that publish sets to other threads and change them copy-on-write.
+     */
+    public UuidHashSet copy() {
+        UuidHashSet copy = new UuidHashSet();
+        copy.slots = slots.clone();
+        copy.mask = mask;
+        copy.size = size;
+        copy.containsNil = containsNil;
+        return copy;
+    }
+
+    public int size() {
+        return size + (containsNil ? 1 : 0);
+    }
+
+    public boolean contains(UUID value) {
+        long msb = value.getMostSignificantBits();
+        long lsb = value.getLeastSignificantBits();
+        if (msb == 0 && lsb == 0) {
+            return containsNil;
+        }
+        return indexOf(msb, lsb) >= 0;
+    }
+
+    public boolean add(UUID value) {
+        long msb = value.getMostSignificantBits();
+        long lsb = value.getLeastSignificantBits();
+        if (msb == 0 && lsb == 0) {
+            boolean added = !containsNil;
+            containsNil = true;
+            return added;
+        }
+        if (indexOf(msb, lsb) >= 0) {
+            return false;
+        }
+        if (size + 1 > (mask + 1) * MAX_LOAD) {
+            resize((mask + 1) << 1);
+        }
+        insert(msb, lsb);
+        size++;
+        return true;
+    }
+
+    public boolean remove(UUID value) {
+        long msb = value.getMostSignificantBits();
+        long lsb = value.getLeastSignificantBits();
+        if (msb == 0 && lsb == 0) {
+            boolean removed = containsNil;
+            containsNil = false;
+            return removed;
+        }
+        int slot = indexOf(msb, lsb);
+        if (slot < 0) {
+            return false;
+        }
+        shiftBack(slot);
+        size--;
+        return true;
+    }
+
+    public List<UUID> toList() {
+        List<UUID> values = new ArrayList<>(size());
+        if (containsNil) {
+            values.add(new UUID(0, 0));
+        }
+        for (int slot = 0; slot <= mask; slot++) {
+            if (!isEmpty(slot)) {
+                values.add(new UUID(slots[slot << 1], slots[(slot << 1) + 1]));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Approximate heap footprint, used by callers that bound memory rather than entry counts.
+     */
+    public long estimatedBytes() {
+        return 32L + ((long) slots.length << 3);
+    }
+
+    private int indexOf(long msb, long lsb) {
+        int slot = hash(msb, lsb) & mask;
+        while (!isEmpty(slot)) {
+            if (slots[slot << 1] == msb && slots[(slot << 1) + 1] == lsb) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void insert(long msb, long lsb) {
+        int slot = hash(msb, lsb) & mask;
+        while (!isEmpty(slot)) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot << 1] = msb;
+        slots[(slot << 1) + 1] = lsb;
+    }
+
+    // Moves later members of the probe run back into the hole so lookups never stop early
+    private void shiftBack(int hole) {
+        int slot = hole;
+        while (true) {
+            slot = (slot + 1) & mask;
+            if (isEmpty(slot)) {
+                break;
+            }
+            int home = hash(slots[slot << 1], slots[(slot << 1) + 1]) & mask;
+            boolean movable = hole <= slot ? (home <= hole || home > slot) : (home <= hole && home > slot);
+            if (movable) {
+                slots[hole << 1] = slots[slot << 1];
+                slots[(hole << 1) + 1] = slots[(slot << 1) + 1];
+                hole = slot;
+            }
+        }
+        slots[hole << 1] = 0;
+        slots[(hole << 1) + 1] = 0;
+    }
+
+    private void resize(int capacity) {
+        long[] previous = slots;
+        allocate(capacity);
+        for (int i = 0; i < previous.length; i += 2) {
+            if (previous[i] != 0 || previous[i + 1] != 0) {
+                insert(previous[i], previous[i + 1]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        slots = new long[capacity << 1];
+        mask = capacity - 1;
+    }
+
+    private boolean isEmpty(int slot) {
+        return slots[slot << 1] == 0 && slots[(slot << 1) + 1] == 0;
+    }
+
+    private static int hash(long msb, long lsb) {
+        long h = msb * 0x9E3779B97F4A7C15L ^ lsb;
+        h ^= h >>> 32;
+        h *= 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 29));
+    }
+}
@@ -0,0 +1,51 @@
+package backend.config;
+
+import backend.cache.CatalogVersion;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Answers conditional GETs on catalog read endpoints from {@link CatalogVersion} before the handler
+ * runs, so a 304 costs no query and no serialization. The tag is taken before the handler reads, so a
+ * write racing the request can only make the tag older than the body, which costs the client one
+ * extra download and never a stale page.
+ * <p>
+ * {@code Last-Modified} has one-second resolution; it is only sent, and {@code If-Modified-Since} only
+ * honoured, once the second of the last write has passed, so two writes within a second cannot hide
+ * each other.
+ */
+public class CatalogETagInterceptor implements HandlerInterceptor {
+    private final CatalogVersion catalogVersion;
+
+    public CatalogETagInterceptor(CatalogVersion catalogVersion) {
+        this.catalogVersion = catalogVersion;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String method = request.getMethod();
+        if (!HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method)) {
+            return true;
+        }
+        CatalogVersion.State state = catalogVersion.current();
+        String etag = "\"" + catalogVersion.epoch() + "-" + state.version() + gzipSuffix(request) + "\"";
+        ServletWebRequest webRequest = new ServletWebRequest(request, response);
+        boolean settled = System.currentTimeMillis() / 1000 > state.lastModified() / 1000;
+        boolean notModified = settled
+                ? webRequest.checkNotModified(etag, state.lastModified())
+                : webRequest.checkNotModified(etag);
+        // Cacheable, but revalidate on every use
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        return !notModified;
+    }
+
+    // Some dashboard responses are served gzipped; a strong tag must differ per encoding
+    private static String gzipSuffix(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.contains("gzip") ? "-gzip" : "";
+    }
+}
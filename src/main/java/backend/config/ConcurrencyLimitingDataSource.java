@@ -0,0 +1,113 @@
+package backend.config;
+
+import backend.exception.ServiceBusyException;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admits at most {@code permits} concurrent connection checkouts and at most {@code maxWaiting} callers
+ * queued behind them. Beyond that, or after {@code acquireTimeout}, the checkout fails straight away with
+ * a {@link ServiceBusyException} cause instead of parking in Hikari until its connection timeout.
+ */
+public class ConcurrencyLimitingDataSource extends DelegatingDataSource {
+    private final Semaphore permits;
+    private final int maxWaiting;
+    private final Duration acquireTimeout;
+    private final Duration retryAfter;
+
+    public ConcurrencyLimitingDataSource(DataSource target, int permits, int maxWaiting, Duration acquireTimeout,
+                                         Duration retryAfter) {
+        super(target);
+        this.permits = new Semaphore(permits, true);
+        this.maxWaiting = maxWaiting;
+        this.acquireTimeout = acquireTimeout;
+        this.retryAfter = retryAfter;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        return release(() -> super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        return release(() -> super.getConnection(username, password));
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    public int waiting() {
+        return permits.getQueueLength();
+    }
+
+    private void acquire() throws SQLException {
+        if (permits.getQueueLength() >= maxWaiting) {
+            throw busy("too many callers waiting for a database connection");
+        }
+        try {
+            if (!permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw busy("timed out waiting for a database connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted waiting for a database connection", e);
+        }
+    }
+
+    // Hands the permit back when the connection is closed, or right away if the checkout fails
+    private Connection release(ConnectionSupplier supplier) throws SQLException {
+        Connection connection;
+        try {
+            connection = supplier.get();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        AtomicBoolean closed = new AtomicBoolean();
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getName().equals("close") && closed.compareAndSet(false, true)) {
+                try {
+                    connection.close();
+                } finally {
+                    permits.release();
+                }
+                return null;
+            }
+            if (method.getName().equals("isClosed") && closed.get()) {
+                return true;
+            }
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, handler);
+    }
+
+    private SQLTransientConnectionException busy(String reason) {
+        return new SQLTransientConnectionException("Database busy: " + reason,
+                new ServiceBusyException("Service busy, try again shortly", retryAfter));
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+}
@@ -0,0 +1,28 @@
+package backend.config;
+
+import backend.cache.CatalogVersion;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class ConditionalGetConfig implements WebMvcConfigurer {
+    private final CatalogVersion catalogVersion;
+
+    public ConditionalGetConfig(CatalogVersion catalogVersion) {
+        this.catalogVersion = catalogVersion;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new CatalogETagInterceptor(catalogVersion))
+                .addPathPatterns("/api/events", "/api/events/*", "/api/events/category/*", "/api/events/tag/*",
+                        "/api/dashboard/**")
+                // Streams stay open for minutes; a tag taken at their start says little about their end
+                .excludePathPatterns("/api/events/export", "/api/dashboard/stream")
+                // Depends on the clock as well: events drop out when they start, without any write
+                .excludePathPatterns("/api/events/upcoming")
+                // Sync must see writes from every node, and the version only counts this node's
+                .excludePathPatterns("/api/events/changes");
+    }
+}
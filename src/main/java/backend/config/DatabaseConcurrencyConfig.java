@@ -0,0 +1,51 @@
+package backend.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Puts a {@link ConcurrencyLimitingDataSource} in front of the Hikari pool. The limit sits on connection
+ * checkout rather than around repositories: that is the single point every repository call, transaction
+ * template and open-in-view session goes through, and a transaction that calls several repositories
+ * holds one connection and one permit, so it cannot deadlock on its own permits. Enabled by the
+ * {@code virtual-threads} profile, where request concurrency is no longer capped by the Tomcat pool.
+ */
+@Configuration
+@ConditionalOnProperty(name = "db.concurrency-limit.enabled", havingValue = "true")
+public class DatabaseConcurrencyConfig {
+
+    @Bean
+    public static BeanPostProcessor concurrencyLimitingDataSourcePostProcessor(Environment environment,
+                                                                               ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitingDataSource) {
+                    return bean;
+                }
+                int permits = environment.getProperty("db.concurrency-limit.permits", Integer.class,
+                        environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+                ConcurrencyLimitingDataSource limited = new ConcurrencyLimitingDataSource(dataSource, permits,
+                        environment.getProperty("db.concurrency-limit.max-waiting", Integer.class, 200),
+                        environment.getProperty("db.concurrency-limit.acquire-timeout", Duration.class, Duration.ofSeconds(5)),
+                        environment.getProperty("db.concurrency-limit.retry-after", Duration.class, Duration.ofSeconds(1)));
+                meterRegistry.ifAvailable(registry -> {
+                    Gauge.builder("db.concurrency.available", limited, ConcurrencyLimitingDataSource::availablePermits)
+                            .register(registry);
+                    Gauge.builder("db.concurrency.waiting", limited, ConcurrencyLimitingDataSource::waiting)
+                            .register(registry);
+                });
+                return limited;
+            }
+        };
+    }
+}
@@ -0,0 +1,106 @@
+package backend.config;
+
+import backend.security.AppTokenJwtDecoder;
+import backend.security.CachingJwtDecoder;
+import backend.util.JwtUtil;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.JwtClaimNames;
+import org.springframework.security.oauth2.jwt.JwtClaimValidator;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Verifies bearer tokens locally: Supabase access tokens, and the HS512 tokens our own sign-in issues
+ * (see {@link AppTokenJwtDecoder}), told apart by their signing algorithm. Supabase signing keys come from the JWKS endpoint through a cache that
+ * is refreshed in the background ahead of expiry and keeps serving the last keys during an outage, so
+ * requests never wait on the endpoint once the keys are warm. Verified tokens are then cached until
+ * they expire by {@link CachingJwtDecoder}.
+ */
+@Configuration
+public class JwtConfig {
+    private static final Logger logger = LoggerFactory.getLogger(JwtConfig.class);
+
+    private final ObjectProvider<JWKSource<SecurityContext>> jwkSources;
+
+    public JwtConfig(ObjectProvider<JWKSource<SecurityContext>> jwkSources) {
+        this.jwkSources = jwkSources;
+    }
+
+    @Bean
+    public JWKSource<SecurityContext> jwkSource(
+            @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}") String jwkSetUri,
+            @Value("${security.jwks.cache-ttl:PT15M}") Duration cacheTtl,
+            @Value("${security.jwks.refresh-timeout:PT5S}") Duration refreshTimeout,
+            @Value("${security.jwks.refresh-ahead:PT1M}") Duration refreshAhead,
+            @Value("${security.jwks.outage-tolerance:PT2H}") Duration outageTolerance) throws MalformedURLException {
+        return JWKSourceBuilder.<SecurityContext>create(URI.create(jwkSetUri).toURL())
+                .cache(cacheTtl.toMillis(), refreshTimeout.toMillis())
+                .refreshAheadCache(refreshAhead.toMillis(), true)
+                .outageTolerant(outageTolerance.toMillis())
+                .build();
+    }
+
+    @Bean
+    public CachingJwtDecoder jwtDecoder(JWKSource<SecurityContext> jwkSource, JwtUtil jwtUtil, MeterRegistry meterRegistry,
+                                        @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}") String issuer,
+                                        @Value("${spring.security.oauth2.resourceserver.jwt.audiences:}") List<String> audiences,
+                                        @Value("${security.jwt.cache.max-entries:10000}") int maxEntries) {
+        Set<JWSAlgorithm> algorithms = new HashSet<>(JWSAlgorithm.Family.RSA);
+        algorithms.addAll(JWSAlgorithm.Family.EC);
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(algorithms, jwkSource));
+        // Claims are checked by the Spring validators below
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+
+        NimbusJwtDecoder supabase = new NimbusJwtDecoder(processor);
+        supabase.setJwtValidator(new DelegatingOAuth2TokenValidator<>(
+                JwtValidators.createDefaultWithIssuer(issuer),
+                new JwtClaimValidator<List<String>>(JwtClaimNames.AUD,
+                        aud -> audiences.isEmpty() || (aud != null && aud.stream().anyMatch(audiences::contains)))));
+        JwtDecoder appTokens = new AppTokenJwtDecoder(jwtUtil);
+        JwtDecoder decoder = token -> AppTokenJwtDecoder.isAppToken(token) ? appTokens.decode(token) : supabase.decode(token);
+        return new CachingJwtDecoder(decoder, maxEntries, Clock.systemUTC(), meterRegistry);
+    }
+
+    // Fetch the signing keys before the first request needs them
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmJwks() {
+        JWKSource<SecurityContext> jwkSource = jwkSources.getObject();
+        CompletableFuture.runAsync(() -> {
+            try {
+                int keys = jwkSource.get(new JWKSelector(new JWKMatcher.Builder().build()), null).size();
+                logger.info("Loaded {} JWKS signing keys", keys);
+            } catch (Exception e) {
+                logger.warn("Could not prefetch JWKS signing keys: {}", e.getMessage());
+            }
+        });
+    }
+}
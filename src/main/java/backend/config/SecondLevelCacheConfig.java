@@ -0,0 +1,64 @@
+package backend.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Properties;
+import java.util.UUID;
+
+/**
+ * Hibernate's second-level cache, held in Caffeine through JCache. Every region is created here with its
+ * own {@code jpa.cache.<region>.max-entries} and {@code ttl}; Hibernate is set to fail on a region that
+ * is not, so no entity ends up in an unbounded cache by accident. The TTL bounds how long a node serves
+ * rows changed behind its back: by another node, or by SQL that Hibernate does not see as a write.
+ * Hit, miss and put counts per region are published by Spring Boot's Hibernate metrics as
+ * {@code hibernate.second.level.cache.*}.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+    public static final String EVENTS = "backend.model.Events";
+    public static final String EVENT_IMAGES = "backend.model.Events.images";
+    public static final String USERS = "backend.model.Users";
+
+    private static final Map<String, String> PROPERTY_PREFIXES = Map.of(
+            EVENTS, "jpa.cache.events",
+            EVENT_IMAGES, "jpa.cache.event-images",
+            USERS, "jpa.cache.users");
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(Environment environment) {
+        // A manager of its own per application context, so test contexts on different databases never share rows
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("eventy-hibernate-" + UUID.randomUUID()), getClass().getClassLoader(),
+                        new Properties());
+        PROPERTY_PREFIXES.forEach((region, prefix) -> {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(
+                    environment.getProperty(prefix + ".max-entries", Long.class, 10_000L)));
+            configuration.setExpireAfterWrite(OptionalLong.of(
+                    environment.getProperty(prefix + ".ttl", Duration.class, Duration.ofMinutes(10)).toNanos()));
+            configuration.setStoreByValue(false);
+            cacheManager.createCache(region, configuration);
+        });
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+}
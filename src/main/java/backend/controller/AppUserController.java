@@ -10,9 +10,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/users")
@@ -25,15 +27,15 @@ public class AppUserController {
     }
 
     @PostMapping("/auth/signup")
-    public ResponseEntity<AuthResponse> createAppUser(@Valid @RequestBody RegisterRequest registerRequest) {
-        Users created = appUserService.createAppUser(registerRequest);
-        return new ResponseEntity<>(new AuthResponse(created.getAuthToken(), created), HttpStatus.CREATED);
+    public CompletableFuture<ResponseEntity<AuthResponse>> createAppUser(@Valid @RequestBody RegisterRequest registerRequest) {
+        return appUserService.createAppUser(registerRequest)
+                .thenApply(created -> new ResponseEntity<>(new AuthResponse(created.getAuthToken(), created), HttpStatus.CREATED));
     }
 
     @PostMapping("/auth/signin")
-    public ResponseEntity<AuthResponse> signIn(@Valid @RequestBody LoginRequest loginRequest) {
-        Users user = appUserService.authenticate(loginRequest.getEmail(), loginRequest.getPassword());
-        return ResponseEntity.ok(new AuthResponse(user.getAuthToken(), user));
+    public CompletableFuture<ResponseEntity<AuthResponse>> signIn(@Valid @RequestBody LoginRequest loginRequest) {
+        return appUserService.authenticate(loginRequest.getEmail(), loginRequest.getPassword())
+                .thenApply(user -> ResponseEntity.ok(new AuthResponse(user.getAuthToken(), user)));
     }
 
     @GetMapping("/{id}")
@@ -44,14 +46,16 @@ public class AppUserController {
 
     @GetMapping("/me")
     public ResponseEntity<Users> getCurrentUser(Authentication authentication) {
+        if (authentication == null || !(authentication.getPrincipal() instanceof Jwt)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
         Users user = appUserService.getCurrentUser(authentication);
         return ResponseEntity.ok(user);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Users> updateAppUser(@PathVariable UUID id, @Valid @RequestBody Users appUser) {
-        Users updated = appUserService.updateAppUser(id, appUser);
-        return ResponseEntity.ok(updated);
+    public CompletableFuture<ResponseEntity<Users>> updateAppUser(@PathVariable UUID id, @Valid @RequestBody Users appUser) {
+        return appUserService.updateAppUser(id, appUser).thenApply(ResponseEntity::ok);
     }
 
     @DeleteMapping("/{id}")
@@ -1,34 +1,76 @@
 package backend.controller;
 
-import backend.model.Events;
+import backend.cache.DashboardResponseCache;
+import backend.cache.DashboardResponseCache.CachedResponse;
+import backend.dto.EventView;
+import backend.event.EventStreamBroadcaster;
 import backend.service.DashboardService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.List;
 
 @RestController
 @RequestMapping("/api")
 @CrossOrigin(origins = "http://localhost:4200")
 public class DashboardController {
     private final DashboardService dashboardService;
+    private final DashboardResponseCache responseCache;
+    private final EventStreamBroadcaster eventStream;
 
-    public DashboardController(DashboardService dashboardService) {
+    public DashboardController(DashboardService dashboardService, DashboardResponseCache responseCache,
+                               EventStreamBroadcaster eventStream) {
         this.dashboardService = dashboardService;
+        this.responseCache = responseCache;
+        this.eventStream = eventStream;
     }
 
     @GetMapping("/dashboard/events")
-    public ResponseEntity<List<Events>> getEvents() {
-        return ResponseEntity.ok(dashboardService.getAllEvents());
+    public ResponseEntity<?> getEvents(@RequestParam(required = false) String cursor,
+                                       @RequestParam(required = false) Integer size,
+                                       @RequestParam(required = false) String view,
+                                       @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        EventView eventView = EventView.parse(view);
+        if (cursor != null) {
+            // Only the first page is hot enough to be worth caching
+            return ResponseEntity.ok(dashboardService.getEvents(cursor, size, eventView));
+        }
+        // Keyed by the size actually served, so arbitrary ?size= values map onto at most max-size keys
+        int pageSize = dashboardService.resolvePageSize(size);
+        return cached(responseCache.getFromDatabase("events:" + pageSize + ":" + eventView,
+                () -> dashboardService.getEvents(null, pageSize, eventView)), acceptEncoding);
+    }
+
+    /**
+     * Server-sent events for every committed write to a public event, on any node: {@code change} with the
+     * event id and change type ({@code DELETED} as well when an event is made private), and {@code resync}
+     * when changes may have been missed and the list should be reloaded. Replaces polling
+     * {@code /dashboard/events}.
+     */
+    @GetMapping(value = "/dashboard/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return eventStream.subscribe();
     }
 
     @GetMapping("/dashboard/categories")
-    public ResponseEntity<List<String>> getCategories() {
-        return ResponseEntity.ok(dashboardService.getCategories());
+    public ResponseEntity<byte[]> getCategories(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return cached(responseCache.get("categories", dashboardService::getCategories), acceptEncoding);
     }
 
     @GetMapping("/dashboard/tags")
-    public ResponseEntity<List<String>> getTags() {
-        return ResponseEntity.ok(dashboardService.getTags());
+    public ResponseEntity<byte[]> getTags(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return cached(responseCache.get("tags", dashboardService::getTags), acceptEncoding);
+    }
+
+    private ResponseEntity<byte[]> cached(CachedResponse response, String acceptEncoding) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(response.gzip());
+        }
+        return builder.body(response.json());
     }
 }
@@ -1,20 +1,34 @@
 package backend.controller;
 
+import backend.dto.CursorPage;
+import backend.dto.EventChanges;
+import backend.dto.EventDatesRequest;
+import backend.dto.EventView;
+import backend.dto.PendingEventDates;
+import backend.exception.HandledExceptionCounter;
+import backend.exception.SyncTokenExpiredException;
 import backend.model.Events;
+import backend.service.EventDatesWriteBehind;
 import backend.service.EventService;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -22,34 +36,111 @@ import java.util.UUID;
 @CrossOrigin(origins = "http://localhost:4200", methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.PATCH, RequestMethod.DELETE, RequestMethod.OPTIONS})
 public class EventController {
     private final EventService eventService;
+    private final EventDatesWriteBehind eventDatesWriteBehind;
+    private final HandledExceptionCounter handledExceptions;
     private static final Logger logger = LoggerFactory.getLogger(EventController.class);
 
     @Autowired
-    public EventController(EventService eventService) {
+    public EventController(EventService eventService, EventDatesWriteBehind eventDatesWriteBehind,
+                           HandledExceptionCounter handledExceptions) {
         this.eventService = eventService;
+        this.eventDatesWriteBehind = eventDatesWriteBehind;
+        this.handledExceptions = handledExceptions;
     }
 
     @GetMapping("/events")
-    public ResponseEntity<List<Events>> getAllEvents() {
+    public ResponseEntity<CursorPage<?>> getAllEvents(@RequestParam(required = false) String cursor,
+                                                      @RequestParam(required = false) Integer size,
+                                                      @RequestParam(required = false) String view) {
         try {
-            logger.debug("Handling GET /api/events");
-            List<Events> events = eventService.getAllEvents();
-            logger.info("Returning {} events", events.size());
-            return ResponseEntity.ok(events);
+            logger.debug("Handling GET /api/events with cursor: {}, size: {}, view: {}", cursor, size, view);
+            CursorPage<?> page = eventService.getPublicEvents(cursor, size, EventView.parse(view));
+            logger.info("Returning {} events", page.items().size());
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            handledExceptions.record(e);
+            logger.error("Invalid listing parameters (cursor={}, size={}, view={}): {}", cursor, size, view, e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new CursorPage<>(List.of(), null));
         } catch (Exception e) {
+            handledExceptions.record(e);
             logger.error("Error in GET /api/events: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(List.of());
+                    .body(new CursorPage<>(List.of(), null));
+        }
+    }
+
+    @GetMapping("/events/search")
+    public ResponseEntity<CursorPage<Events>> searchEvents(@RequestParam(required = false) String q,
+                                                           @RequestParam(required = false) String cursor,
+                                                           @RequestParam(required = false) Integer size) {
+        try {
+            logger.debug("Handling GET /api/events/search with q: {}, cursor: {}, size: {}", q, cursor, size);
+            CursorPage<Events> page = eventService.searchPublicEvents(q, cursor, size);
+            logger.info("Returning {} search results", page.items().size());
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            handledExceptions.record(e);
+            logger.error("Invalid search parameters (q={}, cursor={}, size={}): {}", q, cursor, size, e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new CursorPage<>(List.of(), null));
+        } catch (Exception e) {
+            handledExceptions.record(e);
+            logger.error("Error in GET /api/events/search: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new CursorPage<>(List.of(), null));
+        }
+    }
+
+    /**
+     * Delta sync: {@code since} is the token from the previous response, omitted on the first sync.
+     * 410 when the token is too old to include every deletion; the client then syncs from scratch.
+     */
+    @GetMapping("/events/changes")
+    public ResponseEntity<EventChanges> getEventChanges(@RequestParam(required = false) String since,
+                                                        @RequestParam(required = false) Integer size) {
+        try {
+            logger.debug("Handling GET /api/events/changes with since: {}, size: {}", since, size);
+            EventChanges changes = eventService.getEventChanges(since, size);
+            logger.info("Returning {} changed and {} removed events", changes.events().size(), changes.removed().size());
+            return ResponseEntity.ok(changes);
+        } catch (SyncTokenExpiredException e) {
+            handledExceptions.record(e);
+            logger.info("Expired sync token {}: {}", since, e.getMessage());
+            return ResponseEntity.status(HttpStatus.GONE).build();
+        } catch (IllegalArgumentException e) {
+            handledExceptions.record(e);
+            logger.error("Invalid sync parameters (since={}, size={}): {}", since, size, e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (Exception e) {
+            handledExceptions.record(e);
+            logger.error("Error in GET /api/events/changes: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    @GetMapping(value = "/events/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportEvents() {
+        logger.debug("Handling GET /api/events/export");
+        StreamingResponseBody body = out -> {
+            try {
+                eventService.exportPublicEvents(out);
+            } catch (Exception e) {
+                logger.error("Error in GET /api/events/export: {}", e.getMessage(), e);
+                throw e;
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @GetMapping("/events/{id}")
     public ResponseEntity<Events> getEvent(@PathVariable UUID id) {
         try {
             logger.debug("Handling GET /api/events/{}", id);
             return ResponseEntity.ok(eventService.getEventById(id));
         } catch (Exception e) {
-            logger.error("Error in GET /api/events/{}: {}", id, e.getMessage(), e);
+            handledExceptions.record(e);
+            if (!isNotFound(e)) {
+                logger.error("Error in GET /api/events/{}: {}", id, e.getMessage(), e);
+            }
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
     }
@@ -61,6 +152,7 @@ public class EventController {
             try {
                 UUID.fromString(event.getUserId().toString()); // Validate UUID format
             } catch (IllegalArgumentException e) {
+                handledExceptions.record(e);
                 logger.error("Invalid UUID format for userId: {}", event.getUserId());
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
             }
@@ -68,6 +160,7 @@ public class EventController {
             logger.info("Created event with ID: {}", createdEvent.getId());
             return ResponseEntity.status(HttpStatus.CREATED).body(createdEvent);
         } catch (Exception e) {
+            handledExceptions.record(e);
             logger.error("Error in POST /api/events: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
@@ -79,11 +172,33 @@ public class EventController {
             logger.debug("Handling PUT /api/events/{}", id);
             return ResponseEntity.ok(eventService.updateEvent(id, event));
         } catch (Exception e) {
-            logger.error("Error in PUT /api/events/{}: {}", id, e.getMessage(), e);
+            handledExceptions.record(e);
+            if (!isNotFound(e)) {
+                logger.error("Error in PUT /api/events/{}: {}", id, e.getMessage(), e);
+            }
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
     }
 
+    @PatchMapping(value = "/events/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Events> patchEvent(@PathVariable UUID id, @RequestBody JsonNode patch) {
+        try {
+            logger.debug("Handling PATCH /api/events/{}", id);
+            return ResponseEntity.ok(eventService.patchEvent(id, patch));
+        } catch (IllegalArgumentException e) {
+            handledExceptions.record(e);
+            logger.error("Invalid patch for event {}: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (Exception e) {
+            handledExceptions.record(e);
+            if (isNotFound(e)) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            }
+            logger.error("Error in PATCH /api/events/{}: {}", id, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @DeleteMapping("/events/{id}")
     public ResponseEntity<Void> deleteEvent(@PathVariable UUID id) {
         try {
@@ -91,22 +206,29 @@ public class EventController {
             eventService.deleteEvent(id);
             return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
         } catch (Exception e) {
-            logger.error("Error in DELETE /api/events/{}: {}", id, e.getMessage(), e);
+            handledExceptions.record(e);
+            if (!isNotFound(e)) {
+                logger.error("Error in DELETE /api/events/{}: {}", id, e.getMessage(), e);
+            }
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
     }
 
     @PatchMapping("/events/{id}/dates")
-    public ResponseEntity<Events> updateEventDates(@PathVariable UUID id, @RequestBody Map<String, LocalDateTime> dates) {
+    public ResponseEntity<PendingEventDates> updateEventDates(@PathVariable UUID id, @RequestBody EventDatesRequest dates) {
         try {
             logger.debug("Handling PATCH /api/events/{}/dates", id);
-            LocalDateTime start = dates.get("start");
-            LocalDateTime end = dates.get("end");
-            if (start == null) {
-                throw new IllegalArgumentException("Start date is required");
-            }
-            return ResponseEntity.ok(eventService.updateEventDates(id, start, end));
+            // Accepted now, written with other updates to the same event a moment later
+            return ResponseEntity.accepted().body(eventDatesWriteBehind.submit(id, dates.start(), dates.end(), dates.version()));
+        } catch (OptimisticLockingFailureException e) {
+            handledExceptions.record(e);
+            logger.warn("Rejected PATCH /api/events/{}/dates: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (EntityNotFoundException e) {
+            handledExceptions.record(e);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         } catch (Exception e) {
+            handledExceptions.record(e);
             logger.error("Error in PATCH /api/events/{}/dates: {}", id, e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
@@ -118,6 +240,7 @@ public class EventController {
             logger.debug("Handling GET /api/events/category/{}", category);
             return ResponseEntity.ok(eventService.getEventsByCategory(category));
         } catch (Exception e) {
+            handledExceptions.record(e);
             logger.error("Error in GET /api/events/category/{}: {}", category, e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(List.of());
@@ -130,18 +253,43 @@ public class EventController {
             logger.debug("Handling GET /api/events/tag/{}", tag);
             return ResponseEntity.ok(eventService.getEventsByTag(tag));
         } catch (Exception e) {
+            handledExceptions.record(e);
             logger.error("Error in GET /api/events/tag/{}: {}", tag, e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(List.of());
         }
     }
 
+    @GetMapping("/events/range")
+    public ResponseEntity<List<?>> getEventsInRange(@RequestParam String from, @RequestParam String to,
+                                                    @RequestParam(required = false) String view) {
+        try {
+            logger.debug("Handling GET /api/events/range with from: {}, to: {}, view: {}", from, to, view);
+            List<?> events = eventService.getEventsInRange(parseDateTime(from), parseDateTime(to), EventView.parse(view));
+            logger.info("Returning {} events between {} and {}", events.size(), from, to);
+            return ResponseEntity.ok(events);
+        } catch (IllegalArgumentException e) {
+            handledExceptions.record(e);
+            logger.error("Invalid range (from={}, to={}): {}", from, to, e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(List.of());
+        } catch (Exception e) {
+            handledExceptions.record(e);
+            logger.error("Error in GET /api/events/range: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(List.of());
+        }
+    }
+
     @GetMapping("/events/upcoming")
     public ResponseEntity<List<Events>> getUpcomingEvents(@RequestParam(defaultValue = "5") int limit) {
         try {
             logger.debug("Handling GET /api/events/upcoming with limit: {}", limit);
             return ResponseEntity.ok(eventService.getUpcomingEvents(limit));
+        } catch (IllegalArgumentException e) {
+            handledExceptions.record(e);
+            logger.error("Invalid upcoming limit {}: {}", limit, e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(List.of());
         } catch (Exception e) {
+            handledExceptions.record(e);
             logger.error("Error in GET /api/events/upcoming: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(List.of());
@@ -157,9 +305,11 @@ public class EventController {
             logger.info("Returning {} events for user {}", events.size(), userId);
             return ResponseEntity.ok(events);
         } catch (IllegalArgumentException e) {
+            handledExceptions.record(e);
             logger.error("Invalid user ID {}: {}", userId, e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(List.of());
         } catch (Exception e) {
+            handledExceptions.record(e);
             logger.error("Error in GET /api/events/by-user: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(List.of());
         }
@@ -169,4 +319,18 @@ public class EventController {
         Jwt jwt = (Jwt) authentication.getPrincipal();
         return UUID.fromString(jwt.getClaim("sub"));
     }
-}
\ No newline at end of file
+
+    // Calendars send either a date (month and week views) or a local date-time
+    private static LocalDateTime parseDateTime(String value) {
+        try {
+            return value.length() == 10 ? LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date-time: " + value);
+        }
+    }
+
+    // EventService already logs missing events, rate limited
+    private static boolean isNotFound(Exception e) {
+        return e.getCause() instanceof EntityNotFoundException;
+    }
+}
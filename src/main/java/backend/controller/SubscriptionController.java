@@ -1,6 +1,10 @@
 package backend.controller;
 
+import backend.dto.SubscriptionOutcome;
+import backend.exception.EventFullException;
+import backend.exception.HandledExceptionCounter;
 import backend.service.SubscriptionService;
+import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,11 +20,13 @@ import java.util.UUID;
 @CrossOrigin(origins = "http://localhost:4200", methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.DELETE, RequestMethod.OPTIONS})
 public class SubscriptionController {
     private final SubscriptionService subscriptionService;
+    private final HandledExceptionCounter handledExceptions;
     private static final Logger logger = LoggerFactory.getLogger(SubscriptionController.class);
 
     @Autowired
-    public SubscriptionController(SubscriptionService subscriptionService) {
+    public SubscriptionController(SubscriptionService subscriptionService, HandledExceptionCounter handledExceptions) {
         this.subscriptionService = subscriptionService;
+        this.handledExceptions = handledExceptions;
     }
 
     @GetMapping("/subscriptions")
@@ -32,9 +38,11 @@ public class SubscriptionController {
             logger.info("Returning {} subscribed event IDs for user {}", eventIds.size(), userId);
             return ResponseEntity.ok(eventIds);
         } catch (IllegalArgumentException e) {
+            handledExceptions.record(e);
             logger.error("Invalid user ID {}: {}", userId, e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(List.of());
         } catch (Exception e) {
+            handledExceptions.record(e);
             logger.error("Error in GET /api/dashboard/subscriptions?userId={}: {}", userId, e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(List.of());
         }
@@ -58,16 +66,25 @@ public class SubscriptionController {
                 uuidUserId = UUID.fromString(request.getUserId());
                 uuidEventId = UUID.fromString(eventId);
             } catch (IllegalArgumentException e) {
+                handledExceptions.record(e);
                 logger.error("Invalid UUID format: eventId={}, userId={}", eventId, request.getUserId());
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
             }
             subscriptionService.subscribeToEvent(uuidUserId, uuidEventId);
             logger.info("User {} subscribed to event {}", request.getUserId(), eventId);
             return ResponseEntity.status(HttpStatus.CREATED).build();
+        } catch (EventFullException e) {
+            handledExceptions.record(e);
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (EntityNotFoundException e) {
+            handledExceptions.record(e);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         } catch (IllegalArgumentException e) {
+            handledExceptions.record(e);
             logger.error("Invalid ID (eventId={}, userId={}): {}", eventId, request.getUserId(), e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         } catch (Exception e) {
+            handledExceptions.record(e);
             logger.error("Error in POST /api/dashboard/subscriptions/{} for user {}: {}", eventId, request.getUserId(), e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -85,14 +102,41 @@ public class SubscriptionController {
             logger.info("User {} unsubscribed from event {}", userId, eventId);
             return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
         } catch (IllegalArgumentException e) {
+            handledExceptions.record(e);
             logger.error("Invalid ID (eventId={}, userId={}): {}", eventId, userId, e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         } catch (Exception e) {
+            handledExceptions.record(e);
             logger.error("Error in DELETE /api/dashboard/subscriptions/{} for user {}: {}", eventId, userId, e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    @PostMapping("/subscriptions:batch")
+    public ResponseEntity<List<SubscriptionOutcome>> updateSubscriptions(@RequestBody BatchSubscriptionRequest request) {
+        try {
+            logger.debug("Handling POST /api/dashboard/subscriptions:batch for user {}", request.getUserId());
+            if (request.getUserId() == null || request.getUserId().isEmpty()) {
+                logger.error("Invalid request body or missing userId");
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+            }
+            UUID uuidUserId = UUID.fromString(request.getUserId());
+            List<UUID> subscribe = request.getSubscribe().stream().map(UUID::fromString).toList();
+            List<UUID> unsubscribe = request.getUnsubscribe().stream().map(UUID::fromString).toList();
+            List<SubscriptionOutcome> outcomes = subscriptionService.updateSubscriptions(uuidUserId, subscribe, unsubscribe);
+            logger.info("Applied {} subscription changes for user {}", outcomes.size(), request.getUserId());
+            return ResponseEntity.ok(outcomes);
+        } catch (IllegalArgumentException e) {
+            handledExceptions.record(e);
+            logger.error("Invalid batch subscription request for user {}: {}", request.getUserId(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (Exception e) {
+            handledExceptions.record(e);
+            logger.error("Error in POST /api/dashboard/subscriptions:batch for user {}: {}", request.getUserId(), e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     // Handle OPTIONS for preflight
     @RequestMapping(value = "/subscriptions/{eventId}", method = RequestMethod.OPTIONS)
     public ResponseEntity<Void> handleOptions() {
@@ -112,3 +156,33 @@ class SubscriptionRequest {
         this.userId = userId;
     }
 }
+
+class BatchSubscriptionRequest {
+    private String userId;
+    private List<String> subscribe = List.of();
+    private List<String> unsubscribe = List.of();
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public List<String> getSubscribe() {
+        return subscribe;
+    }
+
+    public void setSubscribe(List<String> subscribe) {
+        this.subscribe = subscribe == null ? List.of() : subscribe;
+    }
+
+    public List<String> getUnsubscribe() {
+        return unsubscribe;
+    }
+
+    public void setUnsubscribe(List<String> unsubscribe) {
+        this.unsubscribe = unsubscribe == null ? List.of() : unsubscribe;
+    }
+}
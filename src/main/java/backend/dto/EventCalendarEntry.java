@@ -0,0 +1,16 @@
+package backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * An event as placed on a calendar grid: {@code ?view=calendar}.
+ */
+public record EventCalendarEntry(UUID id, String title, LocalDateTime start, LocalDateTime end, Boolean allDay,
+                                 Boolean draggable, String color) {
+
+    public static EventCalendarEntry of(EventListRow row) {
+        return new EventCalendarEntry(row.id(), row.title(), row.start(), row.end(), row.allDay(), row.draggable(),
+                row.color());
+    }
+}
@@ -0,0 +1,13 @@
+package backend.dto;
+
+import backend.model.Events;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One page of a delta sync: public events created or updated since the token, ids of events deleted or
+ * made private since it, and the token to send next. {@code hasMore} asks for the next page right away.
+ */
+public record EventChanges(List<Events> events, List<UUID> removed, String token, boolean hasMore) {
+}
@@ -0,0 +1,10 @@
+package backend.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Body of {@code PATCH /api/events/{id}/dates}. {@code version} is optional: when given, the update is
+ * rejected if the event has been changed since the client read that version.
+ */
+public record EventDatesRequest(LocalDateTime start, LocalDateTime end, Long version) {
+}
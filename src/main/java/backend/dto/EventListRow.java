@@ -0,0 +1,13 @@
+package backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The narrow columns the list views are read from, one row per event. Each {@link EventView} other than
+ * {@code full} maps it to its own shape, so every view shares one query per access path.
+ */
+public record EventListRow(UUID id, String title, LocalDateTime start, LocalDateTime end, Boolean allDay,
+                           Boolean draggable, String color, String thumbnail, String location, String category,
+                           Integer attendees, Integer maxAttendees) {
+}
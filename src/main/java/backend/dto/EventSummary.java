@@ -0,0 +1,16 @@
+package backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * An event as shown on a card: {@code ?view=summary}.
+ */
+public record EventSummary(UUID id, String title, LocalDateTime start, LocalDateTime end, String location,
+                           String category, String color, String thumbnail, Integer attendees, Integer maxAttendees) {
+
+    public static EventSummary of(EventListRow row) {
+        return new EventSummary(row.id(), row.title(), row.start(), row.end(), row.location(), row.category(),
+                row.color(), row.thumbnail(), row.attendees(), row.maxAttendees());
+    }
+}
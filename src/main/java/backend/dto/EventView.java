@@ -0,0 +1,38 @@
+package backend.dto;
+
+import java.util.function.Function;
+
+/**
+ * Shape of the events returned by list endpoints, chosen with {@code ?view=}. {@code full} is the
+ * entity as stored; the others are records built from {@link EventListRow}, without the description,
+ * contact details, tags or images.
+ */
+public enum EventView {
+    FULL(null),
+    SUMMARY(EventSummary::of),
+    CALENDAR(EventCalendarEntry::of);
+
+    private final Function<EventListRow, ?> mapper;
+
+    EventView(Function<EventListRow, ?> mapper) {
+        this.mapper = mapper;
+    }
+
+    /**
+     * This view of {@code row}; not defined for {@link #FULL}, which is read as entities.
+     */
+    public Object of(EventListRow row) {
+        return mapper.apply(row);
+    }
+
+    public static EventView parse(String value) {
+        if (value == null || value.isBlank()) {
+            return FULL;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown view: " + value + ", expected summary, calendar or full");
+        }
+    }
+}
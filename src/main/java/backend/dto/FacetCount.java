@@ -0,0 +1,4 @@
+package backend.dto;
+
+public record FacetCount(String name, long count) {
+}
@@ -0,0 +1,11 @@
+package backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Acknowledgement of a queued date update. {@code version} is the version the event will have once the
+ * update is written; clients send it with their next update.
+ */
+public record PendingEventDates(UUID id, LocalDateTime start, LocalDateTime end, long version) {
+}
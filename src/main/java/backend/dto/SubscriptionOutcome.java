@@ -0,0 +1,15 @@
+package backend.dto;
+
+import java.util.UUID;
+
+public record SubscriptionOutcome(UUID eventId, Outcome outcome) {
+
+    public enum Outcome {
+        SUBSCRIBED,
+        ALREADY_SUBSCRIBED,
+        EVENT_NOT_FOUND,
+        EVENT_FULL,
+        UNSUBSCRIBED,
+        NOT_SUBSCRIBED
+    }
+}
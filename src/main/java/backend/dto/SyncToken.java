@@ -0,0 +1,35 @@
+package backend.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Where a client's delta sync stands: every change ordered before (xid, id) has been delivered.
+ * {@code floor} is the transaction horizon of the client's first sync; removals older than it concern
+ * events the client never received and are skipped. Encoded like {@link EventCursor}.
+ */
+public record SyncToken(long xid, UUID id, long floor) {
+    private static final UUID FIRST_ID = new UUID(0, 0);
+
+    /**
+     * The position just before every change made by transaction {@code xid} or later.
+     */
+    public static SyncToken before(long xid, long floor) {
+        return new SyncToken(xid, FIRST_ID, floor);
+    }
+
+    public String encode() {
+        String raw = xid + "|" + id + "|" + floor;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SyncToken decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", -1);
+            return new SyncToken(Long.parseLong(parts[0]), UUID.fromString(parts[1]), Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid sync token: " + token);
+        }
+    }
+}
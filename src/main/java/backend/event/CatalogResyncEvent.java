@@ -0,0 +1,8 @@
+package backend.event;
+
+/**
+ * Published by {@link EventChangeFeed} when writes made by other nodes may have been missed. Listeners
+ * that keep derived state drop or reload all of it.
+ */
+public record CatalogResyncEvent() {
+}
@@ -0,0 +1,259 @@
+package backend.event;
+
+import backend.config.SecondLevelCacheConfig;
+import backend.event.EventChangedEvent.ChangeType;
+import backend.event.EventChangedEvent.EventSnapshot;
+import backend.logging.RateLimitedLogger;
+import backend.model.Events;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Shares committed event changes between nodes. Each write sends a Postgres {@code NOTIFY} inside its
+ * own transaction, so it is delivered exactly when the write commits and never for a rollback; one
+ * connection per node, opened outside the Hikari pool, {@code LISTEN}s for them.
+ * <p>
+ * A notification carries the before/after snapshots of the change. One sent by another node is evicted
+ * from the second-level cache and republished here as an {@link EventChangedEvent} (or
+ * {@link SeatsChangedEvent}), so caches and indexes see it exactly as a local write. Every notification,
+ * this node's included, is then handed to {@link EventStreamBroadcaster}. While the connection is down
+ * changes are missed, so after it reconnects a {@link CatalogResyncEvent} is published and subscribers
+ * get a {@code resync} event telling them to reload.
+ * <p>
+ * With {@code events.stream.notify=false} the database is left out and changes are broadcast after
+ * commit on the node that made them, which is only complete for a single node.
+ */
+@Component
+public class EventChangeFeed {
+    static final String CHANNEL = "event_changes";
+    // NOTIFY payloads are limited to 8000 bytes
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+    private static final int SEATS_PER_NOTIFICATION = 100;
+
+    private static final Logger logger = LoggerFactory.getLogger(EventChangeFeed.class);
+    private static final RateLimitedLogger listenerLogger = new RateLimitedLogger(logger, 1, Duration.ofMinutes(1));
+
+    private final String node = UUID.randomUUID().toString();
+    private final EventStreamBroadcaster broadcaster;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Cache entityCache;
+    private final boolean notify;
+    private final Duration pollInterval;
+    private final Duration reconnectDelay;
+    private volatile boolean running = true;
+    private Thread listener;
+
+    public EventChangeFeed(EventStreamBroadcaster broadcaster, JdbcTemplate jdbcTemplate,
+                           DataSourceProperties dataSourceProperties, ObjectMapper objectMapper,
+                           ApplicationEventPublisher eventPublisher, EntityManagerFactory entityManagerFactory,
+                           @Value("${events.stream.notify:true}") boolean notify,
+                           @Value("${events.stream.listen-poll-interval:PT1S}") Duration pollInterval,
+                           @Value("${events.stream.listen-reconnect-delay:PT5S}") Duration reconnectDelay) {
+        this.broadcaster = broadcaster;
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.entityCache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        this.notify = notify;
+        this.pollInterval = pollInterval;
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void notifyBeforeCommit(EventChangedEvent event) {
+        if (notify) {
+            Notification full = Notification.of(node, event);
+            String payload = toJson(full);
+            if (payload.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES) {
+                // Too many tags to fit: other nodes resync instead of applying the change
+                payload = toJson(new Notification(node, event.eventId(), event.type(), null, null, null, false));
+            }
+            send(payload);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void notifyBeforeCommit(SeatsChangedEvent event) {
+        if (notify) {
+            List<UUID> ids = event.eventIds();
+            for (int from = 0; from < ids.size(); from += SEATS_PER_NOTIFICATION) {
+                List<UUID> chunk = List.copyOf(ids.subList(from, Math.min(ids.size(), from + SEATS_PER_NOTIFICATION)));
+                send(toJson(new Notification(node, null, null, null, null, chunk, event.anyPublic())));
+            }
+        }
+    }
+
+    @TransactionalEventListener
+    public void broadcastAfterCommit(EventChangedEvent event) {
+        if (!notify) {
+            broadcastChange(event.eventId(), event.type(), event.before(), event.after());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startListening() {
+        if (!notify) {
+            return;
+        }
+        listener = new Thread(this::listen, "event-change-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    private void listen() {
+        boolean missedChanges = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                logger.info("Listening for event changes on channel {}", CHANNEL);
+                if (missedChanges) {
+                    resync();
+                    missedChanges = false;
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollInterval.toMillis());
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                // A failed resync is retried on the next connection like any other disconnect
+                if (!running) {
+                    return;
+                }
+                missedChanges = true;
+                listenerLogger.warn("listen", "Event change listener disconnected, retrying in {}: {}",
+                        reconnectDelay, e.getMessage());
+                try {
+                    Thread.sleep(reconnectDelay.toMillis());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void receive(String payload) {
+        try {
+            Notification notification = objectMapper.readValue(payload, Notification.class);
+            boolean remote = !node.equals(notification.node());
+            if (notification.seats() != null) {
+                if (remote) {
+                    notification.seats().forEach(this::evict);
+                    eventPublisher.publishEvent(new SeatsChangedEvent(notification.seats(), notification.seatsPublic()));
+                }
+                return;
+            }
+            if (notification.before() == null && notification.after() == null) {
+                // Sent without snapshots because they did not fit
+                if (remote) {
+                    resync();
+                } else {
+                    broadcaster.broadcast("resync", "{}");
+                }
+                return;
+            }
+            if (remote) {
+                evict(notification.id());
+                eventPublisher.publishEvent(new EventChangedEvent(notification.id(), notification.type(),
+                        notification.before(), notification.after()));
+            }
+            broadcastChange(notification.id(), notification.type(), notification.before(), notification.after());
+        } catch (JsonProcessingException | RuntimeException e) {
+            // One bad notification or listener must not stop the feed
+            listenerLogger.warn("receive", "Failed to apply event change notification {}: {}", payload, e.getMessage());
+        }
+    }
+
+    private void resync() {
+        entityCache.evictEntityData(Events.class);
+        entityCache.evictCollectionData(SecondLevelCacheConfig.EVENT_IMAGES);
+        eventPublisher.publishEvent(new CatalogResyncEvent());
+        broadcaster.broadcast("resync", "{}");
+    }
+
+    private void evict(UUID eventId) {
+        entityCache.evictEntityData(Events.class, eventId);
+        entityCache.evictCollectionData(SecondLevelCacheConfig.EVENT_IMAGES, eventId);
+    }
+
+    // Subscribers are anonymous: a private event only shows up as a removal once it stops being public
+    private void broadcastChange(UUID eventId, ChangeType type, EventSnapshot before, EventSnapshot after) {
+        boolean wasPublic = before != null && before.isPublic();
+        boolean isPublic = after != null && after.isPublic();
+        if (isPublic || wasPublic) {
+            ChangeType shown = isPublic ? type : ChangeType.DELETED;
+            // Ids and type names need no escaping
+            broadcaster.broadcast("change", "{\"id\":\"" + eventId + "\",\"type\":\"" + shown + "\"}");
+        }
+    }
+
+    private void send(String payload) {
+        // Runs on the transaction's connection; Postgres holds the notification until commit
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CHANNEL, payload);
+    }
+
+    private String toJson(Notification notification) {
+        try {
+            return objectMapper.writeValueAsString(notification);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize event change notification", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    /**
+     * What travels over {@code NOTIFY}: either one event change with its snapshots, or a list of events
+     * whose seats moved.
+     */
+    record Notification(String node, UUID id, ChangeType type, EventSnapshot before, EventSnapshot after,
+                        List<UUID> seats, boolean seatsPublic) {
+
+        static Notification of(String node, EventChangedEvent event) {
+            return new Notification(node, event.eventId(), event.type(), event.before(), event.after(), null, false);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package backend.event;
+
+import backend.model.Events;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published by {@link backend.service.EventService} whenever an event is written, and by
+ * {@link backend.service.EventDatesWriteBehind} when queued date changes are. Listeners that keep
+ * derived state (caches, indexes) should react after commit. {@code before} is null for creations and
+ * {@code after} is null for deletions.
+ */
+public record EventChangedEvent(UUID eventId, ChangeType type, EventSnapshot before, EventSnapshot after) {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DATES_CHANGED,
+        DELETED
+    }
+
+    /**
+     * The indexed attributes of an event at one point in time, detached from the persistence context.
+     */
+    public record EventSnapshot(boolean isPublic, String category, List<String> tags,
+                                LocalDateTime start, LocalDateTime end) {
+
+        public static EventSnapshot of(Events event) {
+            return new EventSnapshot(Boolean.TRUE.equals(event.getIsPublic()), event.getCategory(),
+                    event.getTags() == null ? List.of() : List.copyOf(event.getTags()),
+                    event.getStart(), event.getEnd());
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package backend.event;
+
+import backend.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans server-sent events out to the subscribers of {@code /api/dashboard/stream}. Each event is
+ * formatted once and queued per subscriber; a small pool of sender threads drains the queues, so the
+ * caller never waits on a socket. A client that falls more than {@code events.stream.max-queued} events
+ * behind is disconnected and reconnects, which browsers do on their own. A write blocks while the client's
+ * socket buffer is full, so a client whose send takes longer than {@code events.stream.send-timeout} is
+ * disconnected too and the pool gets a thread in place of the one stuck on it until the connector's
+ * write timeout frees it; slow clients only delay themselves. A comment is sent every {@code heartbeat}
+ * so dead connections are noticed and proxies keep idle ones open. Requests hold no Tomcat worker
+ * between events.
+ */
+@Component
+public class EventStreamBroadcaster {
+    private static final Logger logger = LoggerFactory.getLogger(EventStreamBroadcaster.class);
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Slots are reserved before a stream opens, so concurrent subscribes cannot overshoot the limit
+    private final AtomicInteger slots = new AtomicInteger();
+    private final int maxSubscribers;
+    private final int maxQueued;
+    private final Duration timeout;
+    private final Duration reconnectDelay;
+    private final Duration sendTimeout;
+    private final ThreadPoolExecutor senders;
+    private final Set<Subscriber> sending = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "event-stream-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Counter dropped;
+
+    public EventStreamBroadcaster(MeterRegistry meterRegistry,
+                                  @Value("${events.stream.max-subscribers:10000}") int maxSubscribers,
+                                  @Value("${events.stream.max-queued:64}") int maxQueued,
+                                  @Value("${events.stream.send-threads:4}") int sendThreads,
+                                  @Value("${events.stream.send-timeout:PT10S}") Duration sendTimeout,
+                                  @Value("${events.stream.timeout:PT30M}") Duration timeout,
+                                  @Value("${events.stream.client-reconnect-delay:PT3S}") Duration reconnectDelay,
+                                  @Value("${events.stream.heartbeat:PT25S}") Duration heartbeat) {
+        this.maxSubscribers = maxSubscribers;
+        this.maxQueued = maxQueued;
+        this.timeout = timeout;
+        this.reconnectDelay = reconnectDelay;
+        this.sendTimeout = sendTimeout;
+        AtomicInteger counter = new AtomicInteger();
+        // Sized up and back down around stalled sends, so sendThreads of them are always free to write
+        this.senders = new ThreadPoolExecutor(sendThreads, sendThreads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "event-stream-sender-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dropped = meterRegistry.counter("events.stream.dropped");
+        meterRegistry.gaugeCollectionSize("events.stream.subscribers", Tags.empty(), subscribers);
+        heartbeats.scheduleWithFixedDelay(() -> publish(SseEmitter.event().comment("heartbeat").build()),
+                heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+        long stallCheck = Math.max(1, sendTimeout.toMillis() / 2);
+        heartbeats.scheduleWithFixedDelay(this::disconnectStalled, stallCheck, stallCheck, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a stream. Its first frame sets the client's reconnect delay; events follow as they happen.
+     */
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(timeout.toMillis()));
+    }
+
+    // Tests pass an emitter that records or blocks its sends
+    SseEmitter subscribe(SseEmitter emitter) {
+        if (slots.incrementAndGet() > maxSubscribers) {
+            slots.decrementAndGet();
+            throw new ServiceBusyException("Too many open event streams, try again shortly", reconnectDelay);
+        }
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        subscribers.add(subscriber);
+        subscriber.offer(SseEmitter.event().reconnectTime(reconnectDelay.toMillis()).build());
+        return emitter;
+    }
+
+    /**
+     * Queues {@code json} as an event named {@code name} for every open stream.
+     */
+    public void broadcast(String name, String json) {
+        publish(SseEmitter.event().name(name).data(json, MediaType.APPLICATION_JSON).build());
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private void publish(Set<DataWithMediaType> frame) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(frame);
+        }
+    }
+
+    private void disconnectStalled() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : sending) {
+            subscriber.disconnectIfStalled(now);
+        }
+    }
+
+    // Keeps sendThreads threads free while one is stuck on a stalled client
+    private void addSender() {
+        synchronized (senders) {
+            senders.setMaximumPoolSize(senders.getMaximumPoolSize() + 1);
+            senders.setCorePoolSize(senders.getCorePoolSize() + 1);
+        }
+    }
+
+    private void removeSender() {
+        synchronized (senders) {
+            senders.setCorePoolSize(senders.getCorePoolSize() - 1);
+            senders.setMaximumPoolSize(senders.getMaximumPoolSize() - 1);
+        }
+    }
+
+    // Graceful shutdown waits for open requests before beans are destroyed, so end the streams first
+    @EventListener(ContextClosedEvent.class)
+    public void closeStreams() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Queue<Set<DataWithMediaType>> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // Set by the send that is running, cleared by whichever of it and the stall check ends it first
+        private final AtomicBoolean sendRunning = new AtomicBoolean();
+        private volatile long sendStarted;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Set<DataWithMediaType> frame) {
+            if (closed.get()) {
+                return;
+            }
+            if (queued.incrementAndGet() > maxQueued) {
+                if (close()) {
+                    dropped.increment();
+                    logger.debug("Disconnecting event stream {} events behind", maxQueued);
+                    // Completed by a sender, as completing waits for a send in progress
+                    scheduleDrain();
+                }
+                return;
+            }
+            queue.add(frame);
+            scheduleDrain();
+        }
+
+        /**
+         * Removes the subscriber and frees its slot. Only the first call does anything and returns true.
+         */
+        boolean close() {
+            if (!closed.compareAndSet(false, true)) {
+                return false;
+            }
+            subscribers.remove(this);
+            slots.decrementAndGet();
+            return true;
+        }
+
+        void disconnectIfStalled(long now) {
+            if (now - sendStarted < sendTimeout.toNanos()) {
+                return;
+            }
+            addSender();
+            if (!sendRunning.compareAndSet(true, false)) {
+                // The send finished in the meantime
+                removeSender();
+                return;
+            }
+            if (close()) {
+                dropped.increment();
+                logger.debug("Disconnecting event stream whose send has been blocked for over {}", sendTimeout);
+            }
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Set<DataWithMediaType> frame;
+                while (!closed.get() && (frame = queue.poll()) != null) {
+                    queued.decrementAndGet();
+                    send(frame);
+                }
+                if (closed.get()) {
+                    queue.clear();
+                    emitter.complete();
+                    return;
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away or the stream already ended
+                close();
+                queue.clear();
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // An event queued after the last poll but before the flag was cleared still needs a sender
+            if (!queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private void send(Set<DataWithMediaType> frame) throws IOException {
+            sendStarted = System.nanoTime();
+            sendRunning.set(true);
+            sending.add(this);
+            try {
+                emitter.send(frame);
+            } finally {
+                sending.remove(this);
+                if (!sendRunning.compareAndSet(true, false)) {
+                    // Stalled: the stall check added a sender in place of this one
+                    removeSender();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package backend.event;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published by {@link backend.service.SubscriptionService} when subscriptions take or free seats, which
+ * moves the attendee counts of {@code eventIds}. {@code anyPublic} tells whether one of them is public,
+ * and so served by the catalog endpoints.
+ */
+public record SeatsChangedEvent(List<UUID> eventIds, boolean anyPublic) {
+}
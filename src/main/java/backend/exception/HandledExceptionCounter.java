@@ -0,0 +1,42 @@
+package backend.exception;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Counts exceptions that controllers catch and turn into a status code themselves. Those never reach
+ * {@link GlobalExceptionHandler} or the {@code exception} tag of {@code http.server.requests}, so without
+ * this a route failing on every call looks like one answering quickly.
+ */
+@Component
+public class HandledExceptionCounter {
+    private final MeterRegistry meterRegistry;
+
+    public HandledExceptionCounter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void record(Exception e) {
+        String method = "UNKNOWN";
+        String uri = "UNKNOWN";
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletRequest request = attributes.getRequest();
+            method = request.getMethod();
+            // The route template, not the raw path, to keep the tag's cardinality bounded
+            if (request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE) instanceof String pattern) {
+                uri = pattern;
+            }
+        }
+        // Services wrap most failures in a RuntimeException; the root cause says what went wrong
+        Throwable cause = e;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        meterRegistry.counter("http.server.handled.exceptions",
+                "method", method, "uri", uri, "exception", cause.getClass().getSimpleName()).increment();
+    }
+}
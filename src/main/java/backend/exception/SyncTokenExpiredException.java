@@ -0,0 +1,11 @@
+package backend.exception;
+
+/**
+ * The sync token predates tombstones that have since been pruned, so deletions may be missing; the
+ * client has to sync again from scratch.
+ */
+public class SyncTokenExpiredException extends RuntimeException {
+    public SyncTokenExpiredException(String message) {
+        super(message);
+    }
+}
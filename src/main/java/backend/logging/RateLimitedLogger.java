@@ -0,0 +1,72 @@
+package backend.logging;
+
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Logs at most {@code limit} messages per key and interval, and reports how many were dropped with the
+ * first message of the next interval. For failures that repeat per request, such as lookups of ids that
+ * do not exist, where one line says as much as a thousand and the thousand cost real I/O.
+ */
+public class RateLimitedLogger {
+    private final Logger delegate;
+    private final int limit;
+    private final long intervalNanos;
+    private final LongSupplier nanoTime;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    public RateLimitedLogger(Logger delegate, int limit, Duration interval) {
+        this(delegate, limit, interval, System::nanoTime);
+    }
+
+    RateLimitedLogger(Logger delegate, int limit, Duration interval, LongSupplier nanoTime) {
+        this.delegate = delegate;
+        this.limit = limit;
+        this.intervalNanos = interval.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Logs {@code message} at WARN unless {@code key} has used up its messages for this interval.
+     * Keys should come from a fixed set, one per call site, not from request data.
+     */
+    public void warn(String key, String message, Object... args) {
+        if (!delegate.isWarnEnabled()) {
+            return;
+        }
+        long suppressed = windows.computeIfAbsent(key, k -> new Window()).tryAcquire(nanoTime.getAsLong());
+        if (suppressed < 0) {
+            return;
+        }
+        if (suppressed > 0) {
+            delegate.warn("{} similar messages suppressed for {}", suppressed, key);
+        }
+        delegate.warn(message, args);
+    }
+
+    private final class Window {
+        private long start = Long.MIN_VALUE;
+        private int logged;
+        private long suppressed;
+
+        // Returns -1 when the message is to be dropped, otherwise the count dropped since the last one
+        synchronized long tryAcquire(long now) {
+            if (start == Long.MIN_VALUE || now - start >= intervalNanos) {
+                start = now;
+                logged = 0;
+            }
+            if (logged >= limit) {
+                suppressed++;
+                return -1;
+            }
+            logged++;
+            long dropped = suppressed;
+            suppressed = 0;
+            return dropped;
+        }
+    }
+}
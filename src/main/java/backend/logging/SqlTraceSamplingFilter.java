@@ -0,0 +1,58 @@
+package backend.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Marks a request for SQL tracing in the MDC when it carries the {@code sql-trace.header} header or
+ * falls within {@code sql-trace.sample-ratio}. {@link SqlTraceTurboFilter} then lets that request's
+ * statements and bind values through. Work handed to other threads is not traced.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlTraceSamplingFilter extends OncePerRequestFilter {
+    public static final String MDC_KEY = "sqlTrace";
+    public static final String MDC_VALUE = "true";
+
+    private final String header;
+    private final double sampleRatio;
+
+    public SqlTraceSamplingFilter(@Value("${sql-trace.header:}") String header,
+                                  @Value("${sql-trace.sample-ratio:0}") double sampleRatio) {
+        this.header = header;
+        this.sampleRatio = sampleRatio;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!isTraced(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        MDC.put(MDC_KEY, MDC_VALUE);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(MDC_KEY);
+        }
+    }
+
+    private boolean isTraced(HttpServletRequest request) {
+        if (!header.isEmpty() && Boolean.parseBoolean(request.getHeader(header))) {
+            return true;
+        }
+        return sampleRatio > 0 && ThreadLocalRandom.current().nextDouble() < sampleRatio;
+    }
+}
@@ -0,0 +1,32 @@
+package backend.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * Drops Hibernate's SQL and bind-parameter logging except for requests that {@link SqlTraceSamplingFilter}
+ * picked for tracing. Runs before the level check, so with the SQL loggers at DEBUG/TRACE an untraced
+ * request pays one MDC lookup per statement and Hibernate skips formatting the SQL altogether.
+ */
+public class SqlTraceTurboFilter extends TurboFilter {
+    private static final String SQL_LOGGER = "org.hibernate.SQL";
+    private static final String BIND_LOGGER = "org.hibernate.orm.jdbc.bind";
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level != null && level.isGreaterOrEqual(Level.INFO)) {
+            return FilterReply.NEUTRAL;
+        }
+        String name = logger.getName();
+        if (!name.startsWith(SQL_LOGGER) && !name.startsWith(BIND_LOGGER)) {
+            return FilterReply.NEUTRAL;
+        }
+        return SqlTraceSamplingFilter.MDC_VALUE.equals(MDC.get(SqlTraceSamplingFilter.MDC_KEY))
+                ? FilterReply.NEUTRAL
+                : FilterReply.DENY;
+    }
+}
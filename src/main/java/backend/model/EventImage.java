@@ -20,6 +20,6 @@ public class EventImage {
     @Column(name = "is_primary")
     private Boolean isPrimary;
 
-    @Column(name = "order")
+    @Column(name = "\"order\"")
     private Integer order;
 }
\ No newline at end of file
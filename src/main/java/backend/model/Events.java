@@ -3,14 +3,28 @@ package backend.model;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
+import backend.dto.EventListRow;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 @Entity
 @Table(name = "events")
+@DynamicUpdate
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+// Native list-view queries select these columns under these aliases
+@SqlResultSetMapping(name = "EventListRow", classes = @ConstructorResult(targetClass = EventListRow.class, columns = {
+        @ColumnResult(name = "id", type = UUID.class), @ColumnResult(name = "title"),
+        @ColumnResult(name = "start", type = LocalDateTime.class), @ColumnResult(name = "event_end", type = LocalDateTime.class),
+        @ColumnResult(name = "all_day"), @ColumnResult(name = "draggable"), @ColumnResult(name = "color"),
+        @ColumnResult(name = "thumbnail"), @ColumnResult(name = "location"), @ColumnResult(name = "category"),
+        @ColumnResult(name = "attendees"), @ColumnResult(name = "max_attendees")}))
 public class Events {
 
     @Id
@@ -51,8 +65,11 @@ public class Events {
     private String contactEmail;
 
     @ElementCollection
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @CollectionTable(name = "event_images", joinColumns = @JoinColumn(name = "event_id"))
     @Column(name = "image_url")
+    @OrderColumn(name = "position")
     private List<EventImage> images;
 
     @Size(max = 255)
@@ -75,6 +92,9 @@ public class Events {
     @Column(name = "user_id")
     private UUID userId; // New field for creator
 
+    @Version
+    private Long version;
+
     // Getters and Setters
     public UUID getId() { return id; }
     public void setId(UUID id) { this.id = id; }
@@ -116,6 +136,8 @@ public class Events {
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
     public UUID getUserId() {
         return userId;
     }
@@ -1,36 +1,175 @@
 package backend.repository;
 
+import backend.dto.EventListRow;
 import backend.model.Events;
-import org.hibernate.query.Page;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.NativeQuery;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
-import java.awt.print.Pageable;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface EventRepository extends JpaRepository<Events, UUID> {
+    // Unbounded list queries fetch images in the same statement. Limited and native queries cannot
+    // fetch-join a collection, so they rely on @BatchSize on Events.images instead.
+    @Override
+    @EntityGraph(attributePaths = "images")
+    List<Events> findAll();
+
+    @EntityGraph(attributePaths = "images")
     List<Events> findByCategoryIgnoreCase(String category);
 
     @Query(value = "SELECT * FROM events e WHERE e.tags @> ARRAY[LOWER(:tag)]::text[] AND e.is_public = true", nativeQuery = true)
     List<Events> findByTagsContainingIgnoreCase(String tag);
 
-    @Query("SELECT DISTINCT e.category FROM Events e WHERE e.category IS NOT NULL AND e.isPublic = true")
-    List<String> findDistinctCategories();
+    @Query("SELECT e.category AS name, COUNT(e) AS count FROM Events e " +
+            "WHERE e.category IS NOT NULL AND e.isPublic = true GROUP BY e.category")
+    List<FacetCountRow> countPublicEventsByCategory();
 
-    @Query("SELECT DISTINCT unnest(e.tags) FROM Events e WHERE e.isPublic = true")
-    List<String> findDistinctTags();
+    @Query(value = "SELECT t.tag AS name, COUNT(DISTINCT e.id) AS count FROM events e " +
+            "CROSS JOIN LATERAL unnest(e.tags) AS t(tag) WHERE e.is_public = true GROUP BY t.tag", nativeQuery = true)
+    List<FacetCountRow> countPublicEventsByTag();
 
-    @Query("SELECT e FROM Events e WHERE e.isPublic = true AND e.start >= :now ORDER BY e.start ASC")
-    List<Events> findUpcomingEvents(LocalDateTime now);
+    @Query("SELECT e FROM Events e WHERE e.isPublic = true AND e.start >= :now ORDER BY e.start ASC, e.id ASC")
+    List<Events> findUpcomingEvents(LocalDateTime now, Limit limit);
 
+    @EntityGraph(attributePaths = "images")
     @Query("SELECT e FROM Events e WHERE e.userId = :userId")
     List<Events> findByUserId(UUID userId);
 
+    @Query("SELECT e FROM Events e WHERE e.isPublic = true ORDER BY e.start ASC, e.id ASC")
+    List<Events> findPublicEvents(Limit limit);
+
+    @Query("SELECT e FROM Events e WHERE e.isPublic = true AND (e.start, e.id) > (:start, :id) ORDER BY e.start ASC, e.id ASC")
+    List<Events> findPublicEventsAfter(LocalDateTime start, UUID id, Limit limit);
+
+    @Query(value = "SELECT * FROM events e WHERE e.is_public = true " +
+            "AND tsrange(e.start, greatest(e.start, e.event_end), '[]') && tsrange(:from, :to, '[)') " +
+            "ORDER BY e.start ASC, e.id ASC", nativeQuery = true)
+    List<Events> findPublicEventsOverlapping(LocalDateTime from, LocalDateTime to);
+
+    // Ranks at most :maxMatches rows so that a term matching most of the catalog costs the same as a
+    // rare one. The sample is the matches with the lowest ids, so it is the same on every page and a
+    // cursor never sees a different one; rank is computed only for the sample. The GIN index is partial
+    // on is_public.
+    @Query(value = "SELECT r.id AS id, r.rank AS rank FROM (" +
+            "SELECT m.id, ts_rank(m.search_vector, m.query) AS rank FROM (" +
+            "SELECT e.id, e.search_vector, q.query " +
+            "FROM events e, websearch_to_tsquery('english', :query) q(query) " +
+            "WHERE e.is_public = true AND e.search_vector @@ q.query ORDER BY e.id LIMIT :maxMatches) m) r " +
+            "ORDER BY r.rank DESC, r.id DESC LIMIT :limit", nativeQuery = true)
+    List<SearchHitRow> searchPublicEvents(String query, int maxMatches, int limit);
+
+    @Query(value = "SELECT r.id AS id, r.rank AS rank FROM (" +
+            "SELECT m.id, ts_rank(m.search_vector, m.query) AS rank FROM (" +
+            "SELECT e.id, e.search_vector, q.query " +
+            "FROM events e, websearch_to_tsquery('english', :query) q(query) " +
+            "WHERE e.is_public = true AND e.search_vector @@ q.query ORDER BY e.id LIMIT :maxMatches) m) r " +
+            "WHERE (r.rank, r.id) < (CAST(:rank AS real), :id) " +
+            "ORDER BY r.rank DESC, r.id DESC LIMIT :limit", nativeQuery = true)
+    List<SearchHitRow> searchPublicEventsAfter(String query, float rank, UUID id, int maxMatches, int limit);
+
+    @Query("SELECT e.version FROM Events e WHERE e.id = :id")
+    Optional<Long> findVersionById(UUID id);
+
+    // Locks the rows, in id order so concurrent lockers cannot deadlock, and reads them past the second-level cache
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Events e WHERE e.id IN :ids ORDER BY e.id")
+    List<Events> findAllByIdForUpdate(Collection<UUID> ids);
+
+    // Delta sync (EventService.getEventChanges). Transaction ids are xid8 in SQL and bigint in Java.
+    @Query(value = "SELECT CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS text) AS bigint)", nativeQuery = true)
+    long findSnapshotHorizon();
+
+    @Query(value = "SELECT CAST(CAST(pruned_xid AS text) AS bigint) FROM event_sync_horizon", nativeQuery = true)
+    long findPrunedHorizon();
+
+    /**
+     * Changes ordered after (xid, id) and made by transactions older than {@code horizon}, which have all
+     * finished. Rows of private events and tombstones are removals; those older than {@code floor} are
+     * left out. Each branch walks its (change_xid, id) index up to the limit.
+     */
+    @Query(value = """
+            SELECT c.id AS id, c.removed AS removed, CAST(CAST(c.change_xid AS text) AS bigint) AS xid FROM (
+                (SELECT e.id, e.is_public IS NOT TRUE AS removed, e.change_xid FROM events e
+                 WHERE (e.change_xid, e.id) > (CAST(CAST(:xid AS text) AS xid8), :id)
+                   AND e.change_xid < CAST(CAST(:horizon AS text) AS xid8)
+                   AND (e.is_public IS TRUE OR e.change_xid >= CAST(CAST(:floor AS text) AS xid8))
+                 ORDER BY e.change_xid, e.id LIMIT :limit)
+                UNION ALL
+                (SELECT t.event_id, true, t.change_xid FROM event_tombstones t
+                 WHERE (t.change_xid, t.event_id) > (CAST(CAST(:xid AS text) AS xid8), :id)
+                   AND t.change_xid < CAST(CAST(:horizon AS text) AS xid8)
+                   AND t.change_xid >= CAST(CAST(:floor AS text) AS xid8)
+                 ORDER BY t.change_xid, t.event_id LIMIT :limit)
+            ) c
+            ORDER BY c.change_xid, c.id LIMIT :limit
+            """, nativeQuery = true)
+    List<ChangeRow> findChangesAfter(long xid, UUID id, long floor, long horizon, int limit);
+
+    // Reads past the second-level cache: the rows may have been written on another node
+    @EntityGraph(attributePaths = "images")
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, value = "BYPASS"))
+    @Query("SELECT e FROM Events e WHERE e.id IN :ids")
+    List<Events> findAllByIdUncached(Collection<UUID> ids);
+
+    // List views (backend.dto.EventView) read these columns only, as backend.dto.EventListRow
+    @Query("SELECT new backend.dto.EventListRow(e.id, e.title, e.start, e.eventEnd, e.allDay, e.draggable, e.color, " +
+            "e.thumbnail, e.location, e.category, e.attendees, e.maxAttendees) " +
+            "FROM Events e WHERE e.isPublic = true ORDER BY e.start ASC, e.id ASC")
+    List<EventListRow> findPublicEventRows(Limit limit);
+
+    @Query("SELECT new backend.dto.EventListRow(e.id, e.title, e.start, e.eventEnd, e.allDay, e.draggable, e.color, " +
+            "e.thumbnail, e.location, e.category, e.attendees, e.maxAttendees) " +
+            "FROM Events e WHERE e.isPublic = true AND (e.start, e.id) > (:start, :id) ORDER BY e.start ASC, e.id ASC")
+    List<EventListRow> findPublicEventRowsAfter(LocalDateTime start, UUID id, Limit limit);
+
+    @NativeQuery(value = "SELECT e.id, e.title, e.start, e.event_end, e.all_day, e.draggable, e.color, e.thumbnail, " +
+            "e.location, e.category, e.attendees, e.max_attendees FROM events e WHERE e.is_public = true " +
+            "AND tsrange(e.start, greatest(e.start, e.event_end), '[]') && tsrange(:from, :to, '[)') " +
+            "ORDER BY e.start ASC, e.id ASC", sqlResultSetMapping = "EventListRow")
+    List<EventListRow> findPublicEventRowsOverlapping(LocalDateTime from, LocalDateTime to);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = SpecHints.HINT_SPEC_CACHE_STORE_MODE, value = "BYPASS")
+    })
+    @Query("SELECT e FROM Events e WHERE e.isPublic = true ORDER BY e.start ASC, e.id ASC")
+    Stream<Events> streamPublicEvents();
+
+    interface FacetCountRow {
+        String getName();
+
+        long getCount();
+    }
+
+    interface SearchHitRow {
+        UUID getId();
+
+        float getRank();
+    }
+
+    interface ChangeRow {
+        UUID getId();
 
+        boolean getRemoved();
 
-}
\ No newline at end of file
+        long getXid();
+    }
+}
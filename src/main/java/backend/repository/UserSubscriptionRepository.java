@@ -12,9 +12,82 @@ import java.util.UUID;
 public interface UserSubscriptionRepository extends JpaRepository<UserSubscription, UserSubscriptionId> {
     List<UserSubscription> findByUserId(UUID userId);
 
+    @Query("SELECT s.eventId FROM UserSubscription s WHERE s.userId = :userId")
+    List<UUID> findEventIdsByUserId(UUID userId);
+
     boolean existsByUserIdAndEventId(UUID userId, UUID eventId);
 
     @Modifying
     @Query("DELETE FROM UserSubscription s WHERE s.userId = :userId AND s.eventId = :eventId")
     void deleteByUserIdAndEventId(UUID userId, UUID eventId);
-}
\ No newline at end of file
+
+    /**
+     * Subscribes the user to every requested event that still has a free seat and takes that seat, in
+     * one statement. Open events are locked in id order, so concurrent batches cannot overbook or
+     * deadlock. Reports per requested id SUBSCRIBED, ALREADY_SUBSCRIBED, EVENT_FULL or EVENT_NOT_FOUND,
+     * and whether the event is public.
+     */
+    @Query(value = """
+            WITH requested AS (
+                SELECT DISTINCT unnest(CAST(:eventIds AS uuid[])) AS event_id
+            ), open_events AS (
+                SELECT e.id FROM events e
+                WHERE e.id IN (SELECT event_id FROM requested)
+                  AND (e.max_attendees IS NULL OR COALESCE(e.attendees, 0) < e.max_attendees)
+                ORDER BY e.id
+                FOR UPDATE
+            ), inserted AS (
+                INSERT INTO user_subscriptions (user_id, event_id, subscribed_at)
+                SELECT :userId, o.id, now() FROM open_events o
+                ON CONFLICT DO NOTHING
+                RETURNING event_id
+            ), seated AS (
+                UPDATE events e SET attendees = COALESCE(e.attendees, 0) + 1
+                WHERE e.id IN (SELECT event_id FROM inserted)
+                RETURNING e.id
+            )
+            SELECT r.event_id AS eventId,
+                   CASE WHEN s.id IS NOT NULL THEN 'SUBSCRIBED'
+                        WHEN e.id IS NULL THEN 'EVENT_NOT_FOUND'
+                        WHEN o.id IS NOT NULL OR us.event_id IS NOT NULL THEN 'ALREADY_SUBSCRIBED'
+                        ELSE 'EVENT_FULL' END AS outcome,
+                   COALESCE(e.is_public, false) AS isPublic
+            FROM requested r
+            LEFT JOIN seated s ON s.id = r.event_id
+            LEFT JOIN open_events o ON o.id = r.event_id
+            LEFT JOIN events e ON e.id = r.event_id
+            LEFT JOIN user_subscriptions us ON us.user_id = :userId AND us.event_id = r.event_id
+            """, nativeQuery = true)
+    List<OutcomeRow> subscribeAll(UUID userId, UUID[] eventIds);
+
+    /**
+     * Removes the user's subscriptions to {@code eventIds} and frees their seats in one statement.
+     * Reports per requested id UNSUBSCRIBED or NOT_SUBSCRIBED, and whether the event is public.
+     */
+    @Query(value = """
+            WITH deleted AS (
+                DELETE FROM user_subscriptions s
+                WHERE s.user_id = :userId AND s.event_id = ANY(CAST(:eventIds AS uuid[]))
+                RETURNING s.event_id
+            ), released AS (
+                UPDATE events e SET attendees = GREATEST(COALESCE(e.attendees, 0) - 1, 0)
+                WHERE e.id IN (SELECT event_id FROM deleted)
+                RETURNING e.id
+            )
+            SELECT r.event_id AS eventId,
+                   CASE WHEN d.event_id IS NOT NULL THEN 'UNSUBSCRIBED' ELSE 'NOT_SUBSCRIBED' END AS outcome,
+                   COALESCE(e.is_public, false) AS isPublic
+            FROM (SELECT DISTINCT unnest(CAST(:eventIds AS uuid[])) AS event_id) r
+            LEFT JOIN deleted d ON d.event_id = r.event_id
+            LEFT JOIN events e ON e.id = r.event_id
+            """, nativeQuery = true)
+    List<OutcomeRow> unsubscribeAll(UUID userId, UUID[] eventIds);
+
+    interface OutcomeRow {
+        UUID getEventId();
+
+        String getOutcome();
+
+        boolean getIsPublic();
+    }
+}
@@ -0,0 +1,78 @@
+package backend.security;
+
+import backend.util.JwtUtil;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.util.Base64URL;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimNames;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.text.ParseException;
+import java.util.Map;
+
+/**
+ * Verifies the HS512 tokens that {@code /auth/signin} and {@code /auth/signup} issue through
+ * {@link JwtUtil}. Their subject is the user's email rather than an id.
+ */
+public class AppTokenJwtDecoder implements JwtDecoder {
+    private final JwtUtil jwtUtil;
+
+    public AppTokenJwtDecoder(JwtUtil jwtUtil) {
+        this.jwtUtil = jwtUtil;
+    }
+
+    /**
+     * Whether {@code token} is HMAC-signed, as ours are; Supabase signs with its JWKS keys.
+     */
+    public static boolean isAppToken(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0) {
+            return false;
+        }
+        try {
+            JWSHeader header = JWSHeader.parse(new Base64URL(token.substring(0, dot)));
+            return JWSAlgorithm.Family.HMAC_SHA.contains(header.getAlgorithm());
+        } catch (ParseException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        Jws<Claims> jws;
+        try {
+            jws = jwtUtil.parseToken(token);
+        } catch (RuntimeException e) {
+            throw new BadJwtException("Invalid token: " + e.getMessage(), e);
+        }
+        Claims claims = jws.getBody();
+        if (claims.getSubject() == null || claims.getExpiration() == null) {
+            throw new BadJwtException("Token has no subject or expiry");
+        }
+        return Jwt.withTokenValue(token)
+                .headers(headers -> {
+                    // jjwt 0.9 exposes the header as a raw map
+                    for (Object entry : jws.getHeader().entrySet()) {
+                        Map.Entry<?, ?> header = (Map.Entry<?, ?>) entry;
+                        headers.put(String.valueOf(header.getKey()), header.getValue());
+                    }
+                })
+                .claims(values -> {
+                    values.putAll(claims);
+                    // Spring expects Instants where jjwt keeps epoch seconds
+                    values.put(JwtClaimNames.EXP, claims.getExpiration().toInstant());
+                    if (claims.getIssuedAt() != null) {
+                        values.put(JwtClaimNames.IAT, claims.getIssuedAt().toInstant());
+                    }
+                    if (claims.getNotBefore() != null) {
+                        values.put(JwtClaimNames.NBF, claims.getNotBefore().toInstant());
+                    }
+                })
+                .build();
+    }
+}
@@ -0,0 +1,97 @@
+package backend.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers tokens that {@code delegate} has already verified, keyed by the SHA-256 of the raw token,
+ * until their {@code exp}. A repeat caller costs one hash and one map lookup instead of a signature
+ * check. Rejected tokens are never cached, and tokens without {@code exp} are always verified.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+    private final JwtDecoder delegate;
+    private final int maxEntries;
+    private final Clock clock;
+    private final Map<String, Jwt> verified = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public CachingJwtDecoder(JwtDecoder delegate, int maxEntries, Clock clock, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        this.hits = meterRegistry.counter("security.jwt.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("security.jwt.cache.requests", "result", "miss");
+        meterRegistry.gaugeMapSize("security.jwt.cache.entries", Tags.empty(), verified);
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String key = sha256(token);
+        Instant now = clock.instant();
+        Jwt cached = verified.get(key);
+        if (cached != null) {
+            if (now.isBefore(cached.getExpiresAt())) {
+                hits.increment();
+                return cached;
+            }
+            verified.remove(key, cached);
+        }
+        misses.increment();
+        Jwt jwt = delegate.decode(token);
+        if (jwt.getExpiresAt() != null && now.isBefore(jwt.getExpiresAt())) {
+            if (verified.size() >= maxEntries) {
+                evict();
+            }
+            verified.put(key, jwt);
+        }
+        return jwt;
+    }
+
+    /**
+     * Drops expired tokens; called on a schedule so idle entries do not wait for the size bound.
+     */
+    @Scheduled(fixedDelayString = "${security.jwt.cache.purge-interval:PT1M}")
+    public void purgeExpired() {
+        Instant now = clock.instant();
+        verified.values().removeIf(jwt -> !now.isBefore(jwt.getExpiresAt()));
+    }
+
+    public int size() {
+        return verified.size();
+    }
+
+    private void evict() {
+        purgeExpired();
+        // Still full of live tokens: drop arbitrary ones, they are simply verified again on next use
+        Iterator<Jwt> entries = verified.values().iterator();
+        while (verified.size() >= maxEntries && entries.hasNext()) {
+            entries.next();
+            entries.remove();
+        }
+    }
+
+    private static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package backend.security;
+
+import backend.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt hashing and verification on a small dedicated pool so a burst of sign-ins cannot occupy
+ * every Tomcat worker. The queue is bounded; once it is full callers get a {@link ServiceBusyException}
+ * (503 with Retry-After) instead of waiting behind hundreds of hashes.
+ */
+@Component
+public class PasswordHasher {
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration retryAfter;
+    private final Counter rejections;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder, MeterRegistry meterRegistry,
+                          @Value("${security.bcrypt.threads:0}") int threads,
+                          @Value("${security.bcrypt.queue-capacity:64}") int queueCapacity,
+                          @Value("${security.bcrypt.retry-after:PT1S}") Duration retryAfter) {
+        this.passwordEncoder = passwordEncoder;
+        this.retryAfter = retryAfter;
+        // Leave at least one core for request handling
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+            Thread thread = new Thread(r, "password-hasher-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.rejections = meterRegistry.counter("security.password.hasher.rejections");
+        meterRegistry.gauge("security.password.hasher.queue", executor, e -> e.getQueue().size());
+    }
+
+    public CompletableFuture<String> encode(CharSequence rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    public CompletableFuture<Boolean> matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Whether {@code encodedPassword} was hashed with a lower cost than currently configured. Cheap:
+     * only parses the hash prefix.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Runs work that belongs with a hash, such as loading the stored hash, on the same bounded pool.
+     * Keeps it off the request thread, where open-in-view would hold the connection until the response.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+        try {
+            return CompletableFuture.supplyAsync(work, executor);
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            throw new ServiceBusyException("Too many concurrent sign-ins, try again shortly", retryAfter);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
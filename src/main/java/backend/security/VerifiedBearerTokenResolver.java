@@ -0,0 +1,41 @@
+package backend.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.server.resource.web.BearerTokenResolver;
+import org.springframework.security.oauth2.server.resource.web.DefaultBearerTokenResolver;
+
+/**
+ * Hands the resource server only bearer tokens that verify. Every endpoint is public, so a request
+ * with an expired or invalid token is served as anonymous instead of being rejected with 401; endpoints
+ * that need a user still answer 401 themselves. Verified tokens are cached by the decoder, so the
+ * resource server's own decode of the same token is a cache hit.
+ */
+public class VerifiedBearerTokenResolver implements BearerTokenResolver {
+    private static final Logger logger = LoggerFactory.getLogger(VerifiedBearerTokenResolver.class);
+
+    private final BearerTokenResolver delegate = new DefaultBearerTokenResolver();
+    private final JwtDecoder jwtDecoder;
+
+    public VerifiedBearerTokenResolver(JwtDecoder jwtDecoder) {
+        this.jwtDecoder = jwtDecoder;
+    }
+
+    @Override
+    public String resolve(HttpServletRequest request) {
+        String token = delegate.resolve(request);
+        if (token == null) {
+            return null;
+        }
+        try {
+            jwtDecoder.decode(token);
+            return token;
+        } catch (JwtException e) {
+            logger.debug("Ignoring bearer token on {}: {}", request.getRequestURI(), e.getMessage());
+            return null;
+        }
+    }
+}
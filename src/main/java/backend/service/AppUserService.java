@@ -1,43 +1,62 @@
 package backend.service;
 
+import backend.cache.CurrentUserCache;
 import backend.controller.AppUserController;
 import backend.model.Users;
 import backend.repository.AppUserRepository;
+import backend.security.PasswordHasher;
 import backend.util.JwtUtil;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Service
+@Timed("service.calls")
 public class AppUserService {
     private final AppUserRepository appUserRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtUtil jwtUtil;
+    private final CurrentUserCache currentUserCache;
+    private final TransactionTemplate transactionTemplate;
+    private static final Logger logger = LoggerFactory.getLogger(AppUserService.class);
 
     @Autowired
-    public AppUserService(AppUserRepository appUserRepository, PasswordEncoder passwordEncoder, JwtUtil jwtUtil) {
+    public AppUserService(AppUserRepository appUserRepository, PasswordHasher passwordHasher, JwtUtil jwtUtil,
+                          CurrentUserCache currentUserCache, PlatformTransactionManager transactionManager) {
         this.appUserRepository = appUserRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
         this.jwtUtil = jwtUtil;
+        this.currentUserCache = currentUserCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
-    @Transactional
-    public Users createAppUser(AppUserController.RegisterRequest registerRequest) {
-        Users appUser = new Users();
-        appUser.setEmail(registerRequest.getEmail());
-        appUser.setPassword(passwordEncoder.encode(registerRequest.getPassword()));
-        appUser.setFirstName(registerRequest.getFirstName());
-        appUser.setLastName(registerRequest.getLastName());
-        appUser.setRole(registerRequest.getRole());
-        String token = jwtUtil.generateToken(appUser.getEmail(), appUser.getRole());
-        appUser.setAuthToken(token);
-        return appUserRepository.save(appUser);
+    /**
+     * Hashes the password on the {@link PasswordHasher} pool, then inserts the user. No connection is
+     * held while hashing.
+     */
+    public CompletableFuture<Users> createAppUser(AppUserController.RegisterRequest registerRequest) {
+        return passwordHasher.encode(registerRequest.getPassword()).thenApply(encodedPassword -> {
+            Users appUser = new Users();
+            appUser.setEmail(registerRequest.getEmail());
+            appUser.setPassword(encodedPassword);
+            appUser.setFirstName(registerRequest.getFirstName());
+            appUser.setLastName(registerRequest.getLastName());
+            appUser.setRole(registerRequest.getRole());
+            String token = jwtUtil.generateToken(appUser.getEmail(), appUser.getRole());
+            appUser.setAuthToken(token);
+            return appUserRepository.save(appUser);
+        });
     }
 
     @Transactional(readOnly = true)
@@ -46,42 +65,79 @@ public class AppUserService {
                 .orElseThrow(() -> new EntityNotFoundException("AppUser not found with id: " + id));
     }
 
-    @Transactional
-    public Users authenticate(String email, String password) {
-        Users user = appUserRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found with email: " + email));
-        if (passwordEncoder.matches(password, user.getPassword())) {
-            String token = jwtUtil.generateToken(user.getEmail(), user.getRole());
-            user.setAuthToken(token);
-            return appUserRepository.save(user);
-        }
-        throw new RuntimeException("Invalid password");
+    /**
+     * Verifies the password on the {@link PasswordHasher} pool and issues a token. A hash made with a
+     * lower cost than {@code security.bcrypt.strength} is replaced while the plain password is at hand.
+     */
+    public CompletableFuture<Users> authenticate(String email, String password) {
+        return passwordHasher.submit(() -> appUserRepository.findByEmail(email)
+                        .orElseThrow(() -> new RuntimeException("User not found with email: " + email)))
+                .thenCompose(user -> passwordHasher.matches(password, user.getPassword()).thenCompose(valid -> {
+                    if (!valid) {
+                        throw new RuntimeException("Invalid password");
+                    }
+                    if (!passwordHasher.needsRehash(user.getPassword())) {
+                        return CompletableFuture.completedFuture(user);
+                    }
+                    return passwordHasher.encode(password).thenApply(rehashed -> {
+                        logger.info("Upgrading password hash cost for user {}", user.getId());
+                        user.setPassword(rehashed);
+                        return user;
+                    });
+                }))
+                .thenApply(verified -> {
+                    verified.setAuthToken(jwtUtil.generateToken(verified.getEmail(), verified.getRole()));
+                    Users saved = appUserRepository.save(verified);
+                    currentUserCache.evict(saved);
+                    return saved;
+                });
     }
 
-    @Transactional(readOnly = true)
+    // Not transactional: cache hits must not take a pooled connection
     public Users getCurrentUser(Authentication authentication) {
-        String userId = ((Jwt) authentication.getPrincipal()).getSubject();
-        return getAppUser(UUID.fromString(userId));
+        String subject = ((Jwt) authentication.getPrincipal()).getSubject();
+        return currentUserCache.get(subject, () -> {
+            // Supabase tokens carry the user id, the tokens we issue carry the email
+            UUID userId = parseUuid(subject);
+            return userId != null ? getAppUser(userId) : appUserRepository.findByEmail(subject)
+                    .orElseThrow(() -> new EntityNotFoundException("AppUser not found with email: " + subject));
+        });
     }
 
-    @Transactional
-    public Users updateAppUser(UUID id, Users updatedUser) {
-        Users existing = getAppUser(id);
-        existing.setFirstName(updatedUser.getFirstName());
-        existing.setLastName(updatedUser.getLastName());
-        existing.setEmail(updatedUser.getEmail());
-        existing.setRole(updatedUser.getRole());
-        if (updatedUser.getPassword() != null && !updatedUser.getPassword().isEmpty()) {
-            existing.setPassword(passwordEncoder.encode(updatedUser.getPassword()));
+    private static UUID parseUuid(String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            return null;
         }
-        return appUserRepository.save(existing);
+    }
+
+    /**
+     * Hashes a new password off the request thread, like sign-up, then applies the update in its own
+     * transaction so no connection is held during BCrypt.
+     */
+    public CompletableFuture<Users> updateAppUser(UUID id, Users updatedUser) {
+        CompletableFuture<String> encodedPassword = updatedUser.getPassword() != null && !updatedUser.getPassword().isEmpty()
+                ? passwordHasher.encode(updatedUser.getPassword())
+                : CompletableFuture.completedFuture(null);
+        return encodedPassword.thenApply(encoded -> transactionTemplate.execute(status -> {
+            Users existing = getAppUser(id);
+            currentUserCache.evict(existing);
+            existing.setFirstName(updatedUser.getFirstName());
+            existing.setLastName(updatedUser.getLastName());
+            existing.setEmail(updatedUser.getEmail());
+            existing.setRole(updatedUser.getRole());
+            if (encoded != null) {
+                existing.setPassword(encoded);
+            }
+            return appUserRepository.save(existing);
+        }));
     }
 
     @Transactional
     public void deleteAppUser(UUID id) {
-        if (!appUserRepository.existsById(id)) {
-            throw new EntityNotFoundException("AppUser not found with id: " + id);
-        }
-        appUserRepository.deleteById(id);
+        Users existing = getAppUser(id);
+        appUserRepository.delete(existing);
+        currentUserCache.evict(existing);
     }
 }
\ No newline at end of file
@@ -1,40 +1,53 @@
 package backend.service;
 
-import backend.model.Events;
-import backend.model.UserSubscription;
+import backend.cache.EventFacetIndex;
+import backend.dto.CursorPage;
+import backend.dto.EventView;
+import backend.dto.FacetCount;
 import backend.repository.EventRepository;
 import backend.repository.UserSubscriptionRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
+@Timed("service.calls")
 @Transactional
 public class DashboardService {
     private final EventRepository eventRepository;
     private final UserSubscriptionRepository userSubscriptionRepository;
+    private final EventService eventService;
+    private final EventFacetIndex facetIndex;
 
     @Autowired
-    public DashboardService(EventRepository eventRepository, UserSubscriptionRepository userSubscriptionRepository) {
+    public DashboardService(EventRepository eventRepository, UserSubscriptionRepository userSubscriptionRepository,
+                            EventService eventService, EventFacetIndex facetIndex) {
         this.eventRepository = eventRepository;
         this.userSubscriptionRepository = userSubscriptionRepository;
+        this.eventService = eventService;
+        this.facetIndex = facetIndex;
     }
 
-    public List<Events> getAllEvents() {
-        return eventRepository.findAll()
-                .stream()
-                .filter(Events::getIsPublic)
-                .collect(Collectors.toList());
+    public CursorPage<?> getEvents(String cursor, Integer size, EventView view) {
+        return eventService.getPublicEvents(cursor, size, view);
     }
 
-    public List<String> getCategories() {
-        return eventRepository.findDistinctCategories();
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int resolvePageSize(Integer size) {
+        return eventService.resolvePageSize(size);
     }
 
-    public List<String> getTags() {
-        return eventRepository.findDistinctTags();
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<FacetCount> getCategories() {
+        return facetIndex.getCategories();
     }
-}
\ No newline at end of file
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<FacetCount> getTags() {
+        return facetIndex.getTags();
+    }
+}
@@ -0,0 +1,231 @@
+package backend.service;
+
+import backend.dto.PendingEventDates;
+import backend.event.EventChangedEvent;
+import backend.event.EventChangedEvent.ChangeType;
+import backend.event.EventChangedEvent.EventSnapshot;
+import backend.logging.RateLimitedLogger;
+import backend.model.Events;
+import backend.repository.EventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind for {@code PATCH /api/events/{id}/dates}. A calendar drag sends several updates a second
+ * for the same event; they are acknowledged at once, merged per event (last writer wins) and written
+ * every {@code events.dates.flush-interval} as one narrow {@code UPDATE} of the date columns.
+ * <p>
+ * Each queued update is tied to the event version it was based on. The write only applies if the event
+ * is still at that version, so a full update or delete that lands in between wins, and the queued dates
+ * are dropped and counted as a conflict, together with any update queued on top of them while they
+ * were being written. {@link EventChangedEvent}s of type {@code DATES_CHANGED} are
+ * published when the write commits, not when the update is accepted. Reads see the new dates only after
+ * the flush.
+ * <p>
+ * If the batch fails, each event is written again in its own transaction so one bad row does not take
+ * the others with it. Updates that still fail are queued again and retried on the next flush, up to
+ * {@value #MAX_ATTEMPTS} times, before they are dropped and counted as failed.
+ */
+@Service
+public class EventDatesWriteBehind {
+    private static final Logger logger = LoggerFactory.getLogger(EventDatesWriteBehind.class);
+    static final int MAX_ATTEMPTS = 3;
+    private static final RateLimitedLogger conflictLogger = new RateLimitedLogger(logger, 10, Duration.ofMinutes(1));
+
+    private final EventRepository eventRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Object lock = new Object();
+    // Guarded by lock. In-flight entries are being written by flush() and count as applied until it ends.
+    private Map<UUID, Pending> pending = new HashMap<>();
+    private Map<UUID, Pending> inFlight = Map.of();
+
+    public EventDatesWriteBehind(EventRepository eventRepository, ApplicationEventPublisher eventPublisher,
+                                 PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.eventRepository = eventRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Queues new dates for an event. Reads the event's version only when nothing is queued for it, so
+     * the rest of a drag costs no database round trip.
+     *
+     * @throws EntityNotFoundException if the event does not exist
+     * @throws OptimisticLockingFailureException if {@code expectedVersion} is not the version the queued
+     *                                           update is based on or will produce
+     */
+    public PendingEventDates submit(UUID id, LocalDateTime start, LocalDateTime end, Long expectedVersion) {
+        if (start == null) {
+            throw new IllegalArgumentException("Start date is required");
+        }
+        while (true) {
+            Long storedVersion = isQueued(id) ? null : eventRepository.findVersionById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Event not found with id: " + id));
+            PendingEventDates accepted = enqueue(id, start, end, expectedVersion, storedVersion);
+            if (accepted != null) {
+                return accepted;
+            }
+            // The queued update was flushed between the two steps; read the version it produced
+        }
+    }
+
+    private PendingEventDates enqueue(UUID id, LocalDateTime start, LocalDateTime end, Long expectedVersion,
+                                      Long storedVersion) {
+        synchronized (lock) {
+            Pending queued = pending.get(id);
+            long base;
+            if (queued != null) {
+                base = queued.baseVersion();
+            } else if (inFlight.containsKey(id)) {
+                base = inFlight.get(id).baseVersion() + 1;
+            } else if (storedVersion != null) {
+                base = storedVersion;
+            } else {
+                return null;
+            }
+            // A client holding the acknowledgement of the queued update may already send its version
+            if (expectedVersion != null && expectedVersion != base && !(queued != null && expectedVersion == base + 1)) {
+                throw new OptimisticLockingFailureException("Event " + id + " is at version " + base
+                        + ", update was based on " + expectedVersion);
+            }
+            pending.put(id, new Pending(start, end, base, 0));
+            meterRegistry.counter("events.dates.updates", "outcome", queued == null ? "queued" : "coalesced").increment();
+            return new PendingEventDates(id, start, end, base + 1);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${events.dates.flush-interval:PT0.5S}")
+    public void flush() {
+        Map<UUID, Pending> batch;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            inFlight = batch;
+            pending = new HashMap<>();
+        }
+        Map<UUID, Pending> failed = Map.of();
+        List<UUID> conflicts = new ArrayList<>();
+        try {
+            conflicts.addAll(commit(batch));
+        } catch (Exception e) {
+            failed = new HashMap<>();
+            if (batch.size() == 1) {
+                logger.warn("Failed to write queued dates for event {}: {}", batch.keySet().iterator().next(), e.getMessage());
+                failed.putAll(batch);
+                return;
+            }
+            logger.warn("Failed to write {} queued date updates, writing them one by one: {}", batch.size(), e.getMessage());
+            for (Map.Entry<UUID, Pending> entry : batch.entrySet()) {
+                try {
+                    conflicts.addAll(commit(Map.of(entry.getKey(), entry.getValue())));
+                } catch (Exception single) {
+                    logger.warn("Failed to write queued dates for event {}: {}", entry.getKey(), single.getMessage());
+                    failed.put(entry.getKey(), entry.getValue());
+                }
+            }
+        } finally {
+            synchronized (lock) {
+                conflicts.forEach(this::dropChained);
+                failed.forEach(this::requeue);
+                inFlight = Map.of();
+            }
+        }
+    }
+
+    private List<UUID> commit(Map<UUID, Pending> batch) {
+        List<UUID> conflicts = transactionTemplate.execute(status -> write(batch));
+        // Counted once the write commits, so a batch that is written again is not counted twice
+        meterRegistry.counter("events.dates.updates", "outcome", "written").increment(batch.size() - conflicts.size());
+        meterRegistry.counter("events.dates.updates", "outcome", "conflict").increment(conflicts.size());
+        conflicts.forEach(id -> conflictLogger.warn("dateConflict",
+                "Dropped queued dates for event {}: changed or deleted since version {}", id, batch.get(id).baseVersion()));
+        return conflicts;
+    }
+
+    // Guarded by lock. An update queued while its event was in flight is based on the version that write
+    // would have produced; once that write is dropped, the row may reach the same version through some
+    // other write, and the queued dates must not land on top of it.
+    private void dropChained(UUID id) {
+        Pending chained = pending.remove(id);
+        if (chained != null) {
+            meterRegistry.counter("events.dates.updates", "outcome", "conflict").increment();
+            conflictLogger.warn("dateConflict", "Dropped queued dates for event {}: based on a write that was dropped", id);
+        }
+    }
+
+    // Guarded by lock
+    private void requeue(UUID id, Pending failed) {
+        Pending newer = pending.get(id);
+        if (newer != null) {
+            // Queued on the assumption that the failed write went through; it now applies to the version it was based on
+            pending.put(id, new Pending(newer.start(), newer.end(), failed.baseVersion(), failed.attempts() + 1));
+        } else if (failed.attempts() + 1 < MAX_ATTEMPTS) {
+            pending.put(id, new Pending(failed.start(), failed.end(), failed.baseVersion(), failed.attempts() + 1));
+        } else {
+            meterRegistry.counter("events.dates.updates", "outcome", "failed").increment();
+            logger.error("Dropped queued dates for event {} after {} failed writes", id, MAX_ATTEMPTS);
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private List<UUID> write(Map<UUID, Pending> batch) {
+        // Locked, so the versions read here are the ones the updates apply to. Writing through the entities
+        // keeps their second-level cache entries current, where a bulk UPDATE would clear the whole region.
+        Map<UUID, Events> current = eventRepository.findAllByIdForUpdate(batch.keySet()).stream()
+                .collect(Collectors.toMap(Events::getId, Function.identity()));
+        LocalDateTime now = LocalDateTime.now();
+        List<UUID> conflicts = new ArrayList<>();
+        batch.forEach((id, update) -> {
+            Events event = current.get(id);
+            if (event == null || event.getVersion() != update.baseVersion()) {
+                conflicts.add(id);
+                return;
+            }
+            EventSnapshot before = EventSnapshot.of(event);
+            event.setStart(update.start());
+            event.setEnd(update.end());
+            event.setUpdatedAt(now);
+            EventSnapshot after = EventSnapshot.of(event);
+            eventPublisher.publishEvent(new EventChangedEvent(id, ChangeType.DATES_CHANGED, before, after));
+        });
+        logger.debug("Wrote {} queued date updates", batch.size() - conflicts.size());
+        return conflicts;
+    }
+
+    boolean isQueued(UUID id) {
+        synchronized (lock) {
+            return pending.containsKey(id) || inFlight.containsKey(id);
+        }
+    }
+
+    private record Pending(LocalDateTime start, LocalDateTime end, long baseVersion, int attempts) {
+    }
+}
@@ -1,46 +1,274 @@
 package backend.service;
 
+import backend.cache.UpcomingEventsIndex;
+import backend.dto.CursorPage;
+import backend.dto.EventChanges;
+import backend.dto.EventCursor;
+import backend.dto.EventListRow;
+import backend.dto.EventView;
+import backend.dto.SearchCursor;
+import backend.dto.SyncToken;
+import backend.event.EventChangedEvent;
+import backend.event.EventChangedEvent.ChangeType;
+import backend.event.EventChangedEvent.EventSnapshot;
+import backend.exception.SyncTokenExpiredException;
+import backend.logging.RateLimitedLogger;
+import backend.model.EventImage;
 import backend.model.Events;
 import backend.repository.EventRepository;
+import backend.repository.EventRepository.ChangeRow;
+import backend.repository.EventRepository.SearchHitRow;
 import backend.repository.UserSubscriptionRepository;
+import backend.util.JsonMergePatch;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import org.hibernate.jpa.SpecHints;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed("service.calls")
 public class EventService {
     private final EventRepository eventRepository;
     private final UserSubscriptionRepository userSubscriptionRepository;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UpcomingEventsIndex upcomingEventsIndex;
+    private final boolean upcomingIndexEnabled;
+    private final ObjectWriter exportWriter;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int searchMaxMatches;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final Duration maxRangeWindow;
     private static final Logger logger = LoggerFactory.getLogger(EventService.class);
+    // Clients retrying stale links can produce a not-found per request
+    private static final RateLimitedLogger notFoundLogger = new RateLimitedLogger(logger, 10, Duration.ofMinutes(1));
+    private static final int EXPORT_CHUNK_SIZE = 500;
+    private static final int MAX_SEARCH_QUERY_LENGTH = 200;
+    private static final byte NEWLINE = '\n';
 
     @Autowired
-    public EventService(EventRepository eventRepository, UserSubscriptionRepository userSubscriptionRepository) {
+    public EventService(EventRepository eventRepository, UserSubscriptionRepository userSubscriptionRepository,
+                        EntityManager entityManager, ApplicationEventPublisher eventPublisher, ObjectMapper objectMapper,
+                        Validator validator, UpcomingEventsIndex upcomingEventsIndex,
+                        @Value("${events.upcoming.index-enabled:true}") boolean upcomingIndexEnabled,
+                        @Value("${events.page.default-size:50}") int defaultPageSize,
+                        @Value("${events.page.max-size:200}") int maxPageSize,
+                        @Value("${events.search.max-matches:10000}") int searchMaxMatches,
+                        @Value("${events.range.max-window:P92D}") Duration maxRangeWindow) {
         this.eventRepository = eventRepository;
         this.userSubscriptionRepository = userSubscriptionRepository;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.upcomingEventsIndex = upcomingEventsIndex;
+        this.upcomingIndexEnabled = upcomingIndexEnabled;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.exportWriter = objectMapper.writerFor(Events.class).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.searchMaxMatches = searchMaxMatches;
+        this.maxRangeWindow = maxRangeWindow;
     }
 
     @Transactional(readOnly = true)
-    public List<Events> getAllEvents() {
+    public CursorPage<?> getPublicEvents(String cursor, Integer size, EventView view) {
+        int pageSize = resolvePageSize(size);
+        EventCursor after = cursor == null || cursor.isBlank() ? null : EventCursor.decode(cursor);
+        logger.debug("Fetching {} public events after {} as {}", pageSize, after, view);
         try {
-            logger.debug("Fetching all public events");
-            List<Events> events = eventRepository.findAll().stream()
-                    .filter(Events::getIsPublic)
-                    .toList();
-            logger.info("Retrieved {} public events", events.size());
-            return events;
+            // One extra row tells us whether another page exists without a count query
+            Limit limit = Limit.of(pageSize + 1);
+            if (view == EventView.FULL) {
+                List<Events> events = after == null
+                        ? eventRepository.findPublicEvents(limit)
+                        : eventRepository.findPublicEventsAfter(after.start(), after.id(), limit);
+                return toPage(events, pageSize, event -> new EventCursor(event.getStart(), event.getId()));
+            }
+            List<EventListRow> rows = after == null
+                    ? eventRepository.findPublicEventRows(limit)
+                    : eventRepository.findPublicEventRowsAfter(after.start(), after.id(), limit);
+            CursorPage<EventListRow> page = toPage(rows, pageSize, row -> new EventCursor(row.start(), row.id()));
+            return new CursorPage<>(page.items().stream().map(view::of).toList(), page.nextCursor());
         } catch (Exception e) {
             logger.error("Failed to fetch events: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to fetch events", e);
         }
     }
 
+    private static <T> CursorPage<T> toPage(List<T> rows, int pageSize, Function<T, EventCursor> position) {
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> page = rows.subList(0, pageSize);
+        return new CursorPage<>(page, position.apply(page.get(pageSize - 1)).encode());
+    }
+
+    /**
+     * Ranked full-text search over the title, location, organizer and description of public events.
+     * {@code query} takes web-search syntax (quoted phrases, {@code or}, {@code -word}). Results are
+     * capped: only {@code events.search.max-matches} matches, those with the lowest ids, are ranked, so a
+     * term found in most of the catalog returns the best of that fixed sample rather than of every match.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Events> searchPublicEvents(String query, String cursor, Integer size) {
+        if (query == null || query.isBlank() || query.length() > MAX_SEARCH_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Search query must be 1 to " + MAX_SEARCH_QUERY_LENGTH + " characters");
+        }
+        int pageSize = resolvePageSize(size);
+        SearchCursor after = cursor == null || cursor.isBlank() ? null : SearchCursor.decode(cursor);
+        logger.debug("Searching {} public events for '{}' after {}", pageSize, query, after);
+        try {
+            List<SearchHitRow> hits = after == null
+                    ? eventRepository.searchPublicEvents(query, searchMaxMatches, pageSize + 1)
+                    : eventRepository.searchPublicEventsAfter(query, after.rank(), after.id(), searchMaxMatches, pageSize + 1);
+            List<SearchHitRow> pageHits = hits.size() <= pageSize ? hits : hits.subList(0, pageSize);
+            Map<UUID, Events> byId = eventRepository.findAllById(pageHits.stream().map(SearchHitRow::getId).toList())
+                    .stream().collect(Collectors.toMap(Events::getId, Function.identity()));
+            // A hit deleted since the search ran is left out; the cursor still follows the ranked hits
+            List<Events> page = pageHits.stream().map(hit -> byId.get(hit.getId())).filter(Objects::nonNull).toList();
+            if (hits.size() <= pageSize) {
+                return new CursorPage<>(page, null);
+            }
+            SearchHitRow last = pageHits.get(pageSize - 1);
+            return new CursorPage<>(page, new SearchCursor(last.getRank(), last.getId()).encode());
+        } catch (Exception e) {
+            logger.error("Failed to search events for '{}': {}", query, e.getMessage(), e);
+            throw new RuntimeException("Failed to search events", e);
+        }
+    }
+
+    /**
+     * Delta sync for offline clients. Without a token, pages through every public event; with one,
+     * returns only what changed since: events created or updated, and ids of events deleted or made
+     * private. Each page costs an index range scan over the changes it holds. The returned token is
+     * stored and sent next time, also when {@code hasMore} is false. Changes become visible to sync once
+     * every transaction older than them has finished, so none is skipped because it committed late.
+     */
+    @Transactional(readOnly = true)
+    public EventChanges getEventChanges(String token, Integer size) {
+        int pageSize = resolvePageSize(size);
+        SyncToken since = token == null || token.isBlank() ? null : SyncToken.decode(token);
+        if (since != null && Math.max(since.xid(), since.floor()) <= eventRepository.findPrunedHorizon()) {
+            throw new SyncTokenExpiredException("Sync token predates retained deletions, sync again without a token");
+        }
+        logger.debug("Fetching {} event changes since {}", pageSize, since);
+        try {
+            long horizon = eventRepository.findSnapshotHorizon();
+            // A first sync skips removals older than itself: they concern events it never returns
+            SyncToken from = since != null ? since : SyncToken.before(0, horizon);
+            List<ChangeRow> rows = eventRepository.findChangesAfter(from.xid(), from.id(), from.floor(), horizon, pageSize + 1);
+            boolean hasMore = rows.size() > pageSize;
+            List<ChangeRow> page = hasMore ? rows.subList(0, pageSize) : rows;
+            List<UUID> changedIds = page.stream().filter(row -> !row.getRemoved()).map(ChangeRow::getId).toList();
+            Map<UUID, Events> byId = changedIds.isEmpty() ? Map.of() : eventRepository.findAllByIdUncached(changedIds)
+                    .stream().collect(Collectors.toMap(Events::getId, Function.identity()));
+            List<Events> events = new ArrayList<>();
+            List<UUID> removed = new ArrayList<>();
+            for (ChangeRow row : page) {
+                // Also a removal when deleted or made private since the change was listed; that change follows
+                Events event = byId.get(row.getId());
+                if (event != null && Boolean.TRUE.equals(event.getIsPublic())) {
+                    events.add(event);
+                } else {
+                    removed.add(row.getId());
+                }
+            }
+            ChangeRow last = page.isEmpty() ? null : page.get(page.size() - 1);
+            SyncToken next = hasMore
+                    ? new SyncToken(last.getXid(), last.getId(), from.floor())
+                    : SyncToken.before(Math.max(horizon, from.xid()), from.floor());
+            return new EventChanges(events, removed, next.encode(), hasMore);
+        } catch (Exception e) {
+            logger.error("Failed to fetch event changes since {}: {}", since, e.getMessage(), e);
+            throw new RuntimeException("Failed to fetch event changes", e);
+        }
+    }
+
+    /**
+     * Writes every public event to {@code out} as newline-delimited JSON. Rows are read through a
+     * server-side cursor and the persistence context is cleared after each chunk, so memory use does
+     * not grow with the size of the catalog. Nothing read is put in the second-level cache, so an export
+     * does not push the hot entries out of it.
+     */
+    @Transactional(readOnly = true)
+    public long exportPublicEvents(OutputStream out) throws IOException {
+        logger.debug("Exporting public events");
+        // Covers the image collections loaded per chunk, not only the query
+        entityManager.setProperty(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+        long exported = 0;
+        List<Events> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+        try (Stream<Events> events = eventRepository.streamPublicEvents()) {
+            for (Events event : (Iterable<Events>) events::iterator) {
+                chunk.add(event);
+                if (chunk.size() == EXPORT_CHUNK_SIZE) {
+                    exported += writeChunk(chunk, out);
+                }
+            }
+            exported += writeChunk(chunk, out);
+        }
+        logger.info("Exported {} public events", exported);
+        return exported;
+    }
+
+    private int writeChunk(List<Events> chunk, OutputStream out) throws IOException {
+        for (Events event : chunk) {
+            exportWriter.writeValue(out, event);
+            out.write(NEWLINE);
+        }
+        out.flush();
+        int written = chunk.size();
+        chunk.clear();
+        entityManager.clear();
+        return written;
+    }
+
+    /**
+     * The page size a listing actually uses for a requested {@code size}: the default when absent,
+     * capped at {@code events.page.max-size}.
+     */
+    public int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        return Math.min(size, maxPageSize);
+    }
+
     @Transactional(readOnly = true)
     public Events getEventById(UUID id) {
         logger.debug("Fetching event with id: {}", id);
@@ -48,6 +276,9 @@ public class EventService {
             return eventRepository.findById(id)
                     .filter(Events::getIsPublic)
                     .orElseThrow(() -> new EntityNotFoundException("Event not found with id: " + id));
+        } catch (EntityNotFoundException e) {
+            notFoundLogger.warn("getEventById", "Event {} not found", id);
+            throw new RuntimeException("Failed to fetch event", e);
         } catch (Exception e) {
             logger.error("Failed to fetch event with id {}: {}", id, e.getMessage(), e);
             throw new RuntimeException("Failed to fetch event", e);
@@ -62,6 +293,8 @@ public class EventService {
                 throw new IllegalArgumentException("user_id cannot be null");
             }
             event.setId(null); // Ensure new event
+            event.setVersion(null);
+            event.setAttendees(0); // Maintained by SubscriptionService
             event.setCreatedAt(LocalDateTime.now());
             event.setUpdatedAt(LocalDateTime.now());
             if (event.getTags() != null) {
@@ -76,6 +309,8 @@ public class EventService {
                 });
             }
             Events savedEvent = eventRepository.save(event);
+            eventPublisher.publishEvent(new EventChangedEvent(savedEvent.getId(), ChangeType.CREATED,
+                    null, EventSnapshot.of(savedEvent)));
             logger.info("Successfully created event with ID: {}", savedEvent.getId());
             return savedEvent;
         } catch (Exception e) {
@@ -90,56 +325,139 @@ public class EventService {
         try {
             Events existing = eventRepository.findById(id)
                     .orElseThrow(() -> new EntityNotFoundException("Event not found with id: " + id));
-            existing.setTitle(event.getTitle());
-            existing.setDescription(event.getDescription());
-            existing.setStart(event.getStart());
-            existing.setEnd(event.getEnd());
-            existing.setLocation(event.getLocation());
-            existing.setAllDay(event.getAllDay());
-            existing.setDraggable(event.getDraggable());
-            existing.setColor(event.getColor());
-            existing.setCategory(event.getCategory());
-            existing.setOrganizer(event.getOrganizer());
-            existing.setContactEmail(event.getContactEmail());
-            existing.setImages(event.getImages());
-            existing.setThumbnail(event.getThumbnail());
-            existing.setAttendees(event.getAttendees());
-            existing.setMaxAttendees(event.getMaxAttendees());
-            existing.setIsPublic(event.getIsPublic());
-            existing.setTags(event.getTags());
-            return eventRepository.save(existing);
+            EventSnapshot before = EventSnapshot.of(existing);
+            copyEditableFields(event, existing);
+            Events saved = eventRepository.save(existing);
+            eventPublisher.publishEvent(new EventChangedEvent(id, ChangeType.UPDATED, before, EventSnapshot.of(saved)));
+            return saved;
+        } catch (EntityNotFoundException e) {
+            notFoundLogger.warn("updateEvent", "Cannot update event {}: not found", id);
+            throw new RuntimeException("Failed to update event", e);
         } catch (Exception e) {
             logger.error("Failed to update event with id {}: {}", id, e.getMessage(), e);
             throw new RuntimeException("Failed to update event", e);
         }
     }
 
+    /**
+     * Applies a JSON Merge Patch (RFC 7386) to an event: only the members present in {@code patch} change,
+     * {@code null} clears one. {@code images} is replaced as a whole, as merge patch does with arrays,
+     * but only the images that differ are written.
+     */
+    @Transactional
+    public Events patchEvent(UUID id, JsonNode patch) {
+        logger.debug("Patching event with id: {}", id);
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("Merge patch must be a JSON object");
+        }
+        try {
+            Events existing = eventRepository.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Event not found with id: " + id));
+            EventSnapshot before = EventSnapshot.of(existing);
+            Events patched = objectMapper.treeToValue(JsonMergePatch.apply(objectMapper.valueToTree(existing), patch), Events.class);
+            Set<ConstraintViolation<Events>> violations = validator.validate(patched);
+            if (!violations.isEmpty()) {
+                throw new ConstraintViolationException(violations);
+            }
+            copyEditableFields(patched, existing);
+            Events saved = eventRepository.save(existing);
+            eventPublisher.publishEvent(new EventChangedEvent(id, ChangeType.UPDATED, before, EventSnapshot.of(saved)));
+            return saved;
+        } catch (EntityNotFoundException e) {
+            notFoundLogger.warn("patchEvent", "Cannot patch event {}: not found", id);
+            throw new RuntimeException("Failed to patch event", e);
+        } catch (JsonProcessingException | ConstraintViolationException e) {
+            throw new IllegalArgumentException("Invalid patch for event " + id + ": " + e.getMessage(), e);
+        } catch (Exception e) {
+            logger.error("Failed to patch event with id {}: {}", id, e.getMessage(), e);
+            throw new RuntimeException("Failed to patch event", e);
+        }
+    }
+
+    // With @DynamicUpdate, fields set to their current value are left out of the UPDATE
+    private static void copyEditableFields(Events from, Events to) {
+        to.setTitle(from.getTitle());
+        to.setDescription(from.getDescription());
+        to.setStart(from.getStart());
+        to.setEnd(from.getEnd());
+        to.setLocation(from.getLocation());
+        to.setAllDay(from.getAllDay());
+        to.setDraggable(from.getDraggable());
+        to.setColor(from.getColor());
+        to.setCategory(from.getCategory());
+        to.setOrganizer(from.getOrganizer());
+        to.setContactEmail(from.getContactEmail());
+        replaceImages(to, from.getImages());
+        to.setThumbnail(from.getThumbnail());
+        to.setMaxAttendees(from.getMaxAttendees());
+        to.setIsPublic(from.getIsPublic());
+        to.setTags(from.getTags());
+    }
+
+    /**
+     * Edits the managed image list in place. Handing Hibernate a new list makes it delete and re-insert
+     * every row; changing elements of the indexed list costs one statement per image that differs, plus
+     * one per image added or removed at the end.
+     */
+    private static void replaceImages(Events event, List<EventImage> images) {
+        List<EventImage> target = images == null ? List.of() : images;
+        List<EventImage> current = event.getImages();
+        if (current == null) {
+            event.setImages(new ArrayList<>(target));
+            return;
+        }
+        for (int i = 0; i < Math.min(current.size(), target.size()); i++) {
+            if (!current.get(i).equals(target.get(i))) {
+                current.set(i, target.get(i));
+            }
+        }
+        while (current.size() > target.size()) {
+            current.remove(current.size() - 1);
+        }
+        for (int i = current.size(); i < target.size(); i++) {
+            current.add(target.get(i));
+        }
+    }
+
     @Transactional
     public void deleteEvent(UUID id) {
         logger.debug("Deleting event with id: {}", id);
         try {
-            if (!eventRepository.existsById(id)) {
-                throw new EntityNotFoundException("Event not found with id: " + id);
-            }
-            eventRepository.deleteById(id);
+            Events existing = eventRepository.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Event not found with id: " + id));
+            eventRepository.delete(existing);
+            eventPublisher.publishEvent(new EventChangedEvent(id, ChangeType.DELETED, EventSnapshot.of(existing), null));
+        } catch (EntityNotFoundException e) {
+            notFoundLogger.warn("deleteEvent", "Cannot delete event {}: not found", id);
+            throw new RuntimeException("Failed to delete event", e);
         } catch (Exception e) {
             logger.error("Failed to delete event with id {}: {}", id, e.getMessage(), e);
             throw new RuntimeException("Failed to delete event", e);
         }
     }
 
-    @Transactional
-    public Events updateEventDates(UUID id, LocalDateTime start, LocalDateTime end) {
-        logger.debug("Updating event dates for id: {}", id);
+    /**
+     * Public events overlapping {@code [from, to)}, ordered by start, for calendar views. Events that
+     * started before the window and are still running are included; an event without an end counts as
+     * its start instant. Windows longer than {@code events.range.max-window} are rejected so a response
+     * stays the size of what a calendar can show.
+     */
+    @Transactional(readOnly = true)
+    public List<?> getEventsInRange(LocalDateTime from, LocalDateTime to, EventView view) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Range start must be before its end");
+        }
+        if (Duration.between(from, to).compareTo(maxRangeWindow) > 0) {
+            throw new IllegalArgumentException("Range must not exceed " + maxRangeWindow.toDays() + " days");
+        }
+        logger.debug("Fetching public events between {} and {} as {}", from, to, view);
         try {
-            Events event = eventRepository.findById(id)
-                    .orElseThrow(() -> new EntityNotFoundException("Event not found with id: " + id));
-            event.setStart(start);
-            event.setEnd(end);
-            return eventRepository.save(event);
+            return view == EventView.FULL
+                    ? eventRepository.findPublicEventsOverlapping(from, to)
+                    : eventRepository.findPublicEventRowsOverlapping(from, to).stream().map(view::of).toList();
         } catch (Exception e) {
-            logger.error("Failed to update event dates for id {}: {}", id, e.getMessage(), e);
-            throw new RuntimeException("Failed to update event dates", e);
+            logger.error("Failed to fetch events between {} and {}: {}", from, to, e.getMessage(), e);
+            throw new RuntimeException("Failed to fetch events in range", e);
         }
     }
 
@@ -165,14 +483,19 @@ public class EventService {
         }
     }
 
-    @Transactional(readOnly = true)
+    // Not transactional: the index answers most calls without a connection and opens its own on reload.
+    // Limits past the index go to the database and are capped at events.page.max-size.
     public List<Events> getUpcomingEvents(int limit) {
         logger.debug("Fetching up to {} upcoming events", limit);
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
         try {
-            return eventRepository.findUpcomingEvents(LocalDateTime.now())
-                    .stream()
-                    .limit(limit)
-                    .toList();
+            LocalDateTime now = LocalDateTime.now();
+            if (upcomingIndexEnabled && limit <= upcomingEventsIndex.capacity()) {
+                return upcomingEventsIndex.getUpcoming(limit, now);
+            }
+            return eventRepository.findUpcomingEvents(now, Limit.of(resolvePageSize(limit)));
         } catch (Exception e) {
             logger.error("Failed to fetch upcoming events: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to fetch upcoming events", e);
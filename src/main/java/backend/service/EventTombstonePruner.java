@@ -0,0 +1,50 @@
+package backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Deletes tombstones older than {@code events.changes.tombstone-retention} and moves the sync horizon
+ * past them, so {@link EventService#getEventChanges} turns away tokens that could miss a deletion.
+ */
+@Service
+public class EventTombstonePruner {
+    private static final Logger logger = LoggerFactory.getLogger(EventTombstonePruner.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+
+    public EventTombstonePruner(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                @Value("${events.changes.tombstone-retention:P30D}") Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retention = retention;
+    }
+
+    // Plain JDBC: a native write through Hibernate would clear every second-level cache region
+    @Scheduled(fixedDelayString = "${events.changes.prune-interval:PT1H}")
+    public void prune() {
+        Integer pruned = transactionTemplate.execute(status -> jdbcTemplate.queryForObject("""
+                WITH pruned AS (
+                    DELETE FROM event_tombstones WHERE deleted_at < ? RETURNING change_xid
+                ), horizon AS (
+                    UPDATE event_sync_horizon SET pruned_xid = GREATEST(pruned_xid, (SELECT max(change_xid) FROM pruned))
+                    WHERE EXISTS (SELECT 1 FROM pruned)
+                )
+                SELECT count(*) FROM pruned
+                """, Integer.class, LocalDateTime.now().minus(retention)));
+        if (pruned != null && pruned > 0) {
+            logger.info("Pruned {} event tombstones older than {}", pruned, retention);
+        }
+    }
+}
@@ -1,40 +1,64 @@
 package backend.service;
 
-import backend.model.UserSubscription;
+import backend.cache.SubscriptionMembershipCache;
+import backend.dto.SubscriptionOutcome;
+import backend.dto.SubscriptionOutcome.Outcome;
+import backend.event.SeatsChangedEvent;
+import backend.exception.EventFullException;
+import backend.model.Events;
 import backend.repository.EventRepository;
 import backend.repository.UserSubscriptionRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
+@Timed("service.calls")
 public class SubscriptionService {
     private final UserSubscriptionRepository userSubscriptionRepository;
     private final EventRepository eventRepository;
+    private final SubscriptionMembershipCache membershipCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Cache entityCache;
+    private final int maxBatchSize;
     private static final Logger logger = LoggerFactory.getLogger(SubscriptionService.class);
 
     @Autowired
-    public SubscriptionService(UserSubscriptionRepository userSubscriptionRepository, EventRepository eventRepository) {
+    public SubscriptionService(UserSubscriptionRepository userSubscriptionRepository, EventRepository eventRepository,
+                               SubscriptionMembershipCache membershipCache, ApplicationEventPublisher eventPublisher,
+                               EntityManagerFactory entityManagerFactory,
+                               @Value("${subscriptions.batch.max-size:500}") int maxBatchSize) {
         this.userSubscriptionRepository = userSubscriptionRepository;
         this.eventRepository = eventRepository;
+        this.membershipCache = membershipCache;
+        this.eventPublisher = eventPublisher;
+        this.entityCache = entityManagerFactory.getCache();
+        this.maxBatchSize = maxBatchSize;
     }
 
-    @Transactional(readOnly = false)
+    // Not transactional: cache hits must not take a pooled connection
     public List<String> getSubscribedEventIds(UUID userId) {
         try {
             logger.debug("Fetching subscribed event IDs for user {}", userId);
-            List<UserSubscription> subscriptions = userSubscriptionRepository.findByUserId(userId);
-            List<String> eventIds = subscriptions.stream()
-                    .map(sub -> sub.getEventId().toString())
-                    .collect(Collectors.toList());
+            List<String> eventIds = membershipCache.getEventIds(userId).stream()
+                    .map(UUID::toString)
+                    .toList();
             logger.info("Found {} subscribed events for user {}", eventIds.size(), userId);
             return eventIds;
         } catch (Exception e) {
@@ -47,19 +71,21 @@ public class SubscriptionService {
     public void subscribeToEvent(UUID userId, UUID eventId) {
         try {
             logger.debug("Subscribing user {} to event {}", userId, eventId);
-            if (!eventRepository.existsById(eventId)) {
-                throw new EntityNotFoundException("Event not found with id: " + eventId);
+            UserSubscriptionRepository.OutcomeRow row = userSubscriptionRepository.subscribeAll(userId, new UUID[]{eventId}).get(0);
+            Outcome outcome = Outcome.valueOf(row.getOutcome());
+            switch (outcome) {
+                case EVENT_NOT_FOUND -> throw new EntityNotFoundException("Event not found with id: " + eventId);
+                case EVENT_FULL -> throw new EventFullException("Event " + eventId + " is full");
+                case ALREADY_SUBSCRIBED -> logger.info("User {} already subscribed to event {}", userId, eventId);
+                default -> {
+                    logger.info("Successfully subscribed user {} to event {}", userId, eventId);
+                    seatsMovedAfterCommit(List.of(eventId), row.getIsPublic());
+                }
             }
-            if (userSubscriptionRepository.existsByUserIdAndEventId(userId, eventId)) {
-                logger.info("User {} already subscribed to event {}", userId, eventId);
-                return;
-            }
-            UserSubscription subscription = new UserSubscription();
-            subscription.setUserId(userId);
-            subscription.setEventId(eventId);
-            subscription.setSubscribedAt(ZonedDateTime.now());
-            userSubscriptionRepository.save(subscription);
-            logger.info("Successfully subscribed user {} to event {}", userId, eventId);
+            membershipCache.subscribed(userId, List.of(eventId));
+        } catch (EventFullException | EntityNotFoundException e) {
+            logger.info("Rejected subscription of user {} to event {}: {}", userId, eventId, e.getMessage());
+            throw e;
         } catch (Exception e) {
             logger.error("Failed to subscribe user {} to event {}: {}", userId, eventId, e.getMessage(), e);
             throw new RuntimeException("Failed to subscribe to event", e);
@@ -70,15 +96,112 @@ public class SubscriptionService {
     public void unsubscribeFromEvent(UUID userId, UUID eventId) {
         try {
             logger.debug("Unsubscribing user {} from event {}", userId, eventId);
-            if (!userSubscriptionRepository.existsByUserIdAndEventId(userId, eventId)) {
+            UserSubscriptionRepository.OutcomeRow row = userSubscriptionRepository.unsubscribeAll(userId, new UUID[]{eventId}).get(0);
+            Outcome outcome = Outcome.valueOf(row.getOutcome());
+            membershipCache.unsubscribed(userId, List.of(eventId));
+            if (outcome == Outcome.NOT_SUBSCRIBED) {
                 logger.info("User {} not subscribed to event {}", userId, eventId);
                 return;
             }
-            userSubscriptionRepository.deleteByUserIdAndEventId(userId, eventId);
+            seatsMovedAfterCommit(List.of(eventId), row.getIsPublic());
             logger.info("Successfully unsubscribed user {} from event {}", userId, eventId);
         } catch (Exception e) {
             logger.error("Failed to unsubscribe user {} from event {}: {}", userId, eventId, e.getMessage(), e);
             throw new RuntimeException("Failed to unsubscribe from event", e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Applies many subscribe and unsubscribe requests for one user with one statement per direction.
+     */
+    @Transactional
+    public List<SubscriptionOutcome> updateSubscriptions(UUID userId, List<UUID> subscribe, List<UUID> unsubscribe) {
+        if (subscribe.size() + unsubscribe.size() > maxBatchSize) {
+            throw new IllegalArgumentException("At most " + maxBatchSize + " events can be changed per batch");
+        }
+        Set<UUID> overlap = new HashSet<>(subscribe);
+        overlap.retainAll(unsubscribe);
+        if (!overlap.isEmpty()) {
+            throw new IllegalArgumentException("Events cannot be both subscribed and unsubscribed: " + overlap);
+        }
+        try {
+            logger.debug("Batch updating subscriptions for user {}: {} subscribe, {} unsubscribe",
+                    userId, subscribe.size(), unsubscribe.size());
+            List<UserSubscriptionRepository.OutcomeRow> rows = new ArrayList<>(subscribe.size() + unsubscribe.size());
+            if (!subscribe.isEmpty()) {
+                rows.addAll(userSubscriptionRepository.subscribeAll(userId, subscribe.toArray(UUID[]::new)));
+            }
+            if (!unsubscribe.isEmpty()) {
+                rows.addAll(userSubscriptionRepository.unsubscribeAll(userId, unsubscribe.toArray(UUID[]::new)));
+            }
+            List<SubscriptionOutcome> outcomes = rows.stream().map(SubscriptionService::toOutcome).toList();
+            applyToMembershipCache(userId, outcomes);
+            seatsMovedAfterCommit(rows);
+            logger.info("Batch updated {} subscriptions for user {}", outcomes.size(), userId);
+            return outcomes;
+        } catch (Exception e) {
+            logger.error("Failed to batch update subscriptions for user {}: {}", userId, e.getMessage(), e);
+            throw new RuntimeException("Failed to update subscriptions", e);
+        }
+    }
+
+    private void applyToMembershipCache(UUID userId, List<SubscriptionOutcome> outcomes) {
+        List<UUID> subscribed = new ArrayList<>();
+        List<UUID> unsubscribed = new ArrayList<>();
+        for (SubscriptionOutcome outcome : outcomes) {
+            switch (outcome.outcome()) {
+                case SUBSCRIBED, ALREADY_SUBSCRIBED -> subscribed.add(outcome.eventId());
+                case UNSUBSCRIBED, NOT_SUBSCRIBED -> unsubscribed.add(outcome.eventId());
+                default -> {
+                }
+            }
+        }
+        membershipCache.subscribed(userId, subscribed);
+        membershipCache.unsubscribed(userId, unsubscribed);
+    }
+
+    private void seatsMovedAfterCommit(List<UserSubscriptionRepository.OutcomeRow> rows) {
+        List<UUID> moved = new ArrayList<>();
+        boolean anyPublic = false;
+        for (UserSubscriptionRepository.OutcomeRow row : rows) {
+            Outcome outcome = Outcome.valueOf(row.getOutcome());
+            if (outcome == Outcome.SUBSCRIBED || outcome == Outcome.UNSUBSCRIBED) {
+                moved.add(row.getEventId());
+                anyPublic |= row.getIsPublic();
+            }
+        }
+        if (!moved.isEmpty()) {
+            seatsMovedAfterCommit(moved, anyPublic);
+        }
+    }
+
+    /**
+     * Attendee counts of {@code eventIds} changed. Listeners such as the catalog tag only react when one
+     * of them is public, since private events are served by none of the catalog endpoints.
+     */
+    private void seatsMovedAfterCommit(List<UUID> eventIds, boolean anyPublic) {
+        evictAfterCommit(eventIds);
+        eventPublisher.publishEvent(new SeatsChangedEvent(eventIds, anyPublic));
+    }
+
+    /**
+     * Drops the events from the second-level cache once the transaction commits. Seats are taken and
+     * released by native SQL, which Hibernate does not see as a write to {@code events}.
+     */
+    private void evictAfterCommit(List<UUID> eventIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eventIds.forEach(id -> entityCache.evict(Events.class, id));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eventIds.forEach(id -> entityCache.evict(Events.class, id));
+            }
+        });
+    }
+
+    private static SubscriptionOutcome toOutcome(UserSubscriptionRepository.OutcomeRow row) {
+        return new SubscriptionOutcome(row.getEventId(), Outcome.valueOf(row.getOutcome()));
+    }
+}
@@ -1,5 +1,7 @@
 package backend.util;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import org.springframework.stereotype.Component;
@@ -20,4 +22,11 @@ public class JwtUtil {
                 .signWith(SignatureAlgorithm.HS512, SECRET_KEY)
                 .compact();
     }
-}
\ No newline at end of file
+
+    /**
+     * Verifies the signature and expiry of a token made by {@link #generateToken}.
+     */
+    public Jws<Claims> parseToken(String token) {
+        return Jwts.parser().setSigningKey(SECRET_KEY).parseClaimsJws(token);
+    }
+}
@@ -0,0 +1,52 @@
+-- Baseline schema as it exists in Supabase. Existing databases are baselined at
+-- this version (spring.flyway.baseline-on-migrate) so this only runs on empty ones.
+
+CREATE TABLE IF NOT EXISTS users (
+    id          UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    first_name  VARCHAR(255) NOT NULL,
+    last_name   VARCHAR(255) NOT NULL,
+    email       VARCHAR(255) NOT NULL UNIQUE,
+    auth_token  VARCHAR(512),
+    password    VARCHAR(255) NOT NULL,
+    role        VARCHAR(50)  NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS events (
+    id             UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    title          VARCHAR(255) NOT NULL,
+    description    VARCHAR(1000),
+    start          TIMESTAMP    NOT NULL,
+    event_end      TIMESTAMP,
+    location       VARCHAR(255),
+    all_day        BOOLEAN,
+    draggable      BOOLEAN,
+    color          VARCHAR(50),
+    category       VARCHAR(50),
+    organizer      VARCHAR(255),
+    contact_email  VARCHAR(255),
+    thumbnail      VARCHAR(255),
+    attendees      INTEGER,
+    max_attendees  INTEGER,
+    is_public      BOOLEAN,
+    tags           TEXT[],
+    created_at     TIMESTAMP,
+    updated_at     TIMESTAMP,
+    user_id        UUID
+);
+
+CREATE TABLE IF NOT EXISTS event_images (
+    event_id    UUID NOT NULL REFERENCES events (id) ON DELETE CASCADE,
+    image_url   VARCHAR(1024) NOT NULL,
+    caption     VARCHAR(255),
+    is_primary  BOOLEAN,
+    "order"     INTEGER
+);
+
+CREATE INDEX IF NOT EXISTS idx_event_images_event_id ON event_images (event_id);
+
+CREATE TABLE IF NOT EXISTS user_subscriptions (
+    user_id        UUID        NOT NULL,
+    event_id       UUID        NOT NULL REFERENCES events (id) ON DELETE CASCADE,
+    subscribed_at  TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (user_id, event_id)
+);
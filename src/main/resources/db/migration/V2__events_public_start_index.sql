@@ -0,0 +1,2 @@
+-- Backs the keyset-paginated public listing: WHERE is_public ORDER BY start, id
+CREATE INDEX IF NOT EXISTS idx_events_public_start_id ON events (start, id) WHERE is_public = true;
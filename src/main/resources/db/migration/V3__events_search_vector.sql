@@ -0,0 +1,11 @@
+-- Full-text search over the public listing. The vector is a stored generated column, so Postgres keeps
+-- it current on every insert and update without triggers or application code. Title weighs most,
+-- location and organizer next, description least.
+ALTER TABLE events ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('english', coalesce(location, '')), 'B') ||
+    setweight(to_tsvector('english', coalesce(organizer, '')), 'B') ||
+    setweight(to_tsvector('english', coalesce(description, '')), 'C')
+) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_events_search_vector ON events USING GIN (search_vector) WHERE is_public = true;
@@ -0,0 +1,5 @@
+-- Backs the calendar window query: public events whose [start, end] overlaps [from, to). An event
+-- without an end, or with an end before its start, occupies its start instant. The expression must
+-- match EventRepository.findPublicEventsOverlapping exactly for the planner to use the index.
+CREATE INDEX IF NOT EXISTS idx_events_public_time_range ON events
+    USING GIST (tsrange(start, greatest(start, event_end), '[]')) WHERE is_public = true;
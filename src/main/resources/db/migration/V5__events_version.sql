@@ -0,0 +1,3 @@
+-- Optimistic locking for Events (@Version). Adding a column with a constant default does not rewrite
+-- the table on Postgres 11+.
+ALTER TABLE events ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,15 @@
+-- Stores each image's index in Events.images (@OrderColumn) so Hibernate can update, insert or delete a
+-- single row when one image changes instead of rewriting the whole collection. Existing rows are
+-- numbered by their display order.
+ALTER TABLE event_images ADD COLUMN IF NOT EXISTS position INTEGER;
+
+UPDATE event_images i SET position = r.position
+FROM (SELECT ctid, row_number() OVER (PARTITION BY event_id ORDER BY "order" NULLS LAST, ctid) - 1 AS position
+      FROM event_images) r
+WHERE i.ctid = r.ctid AND i.position IS NULL;
+
+ALTER TABLE event_images ALTER COLUMN position SET NOT NULL;
+
+-- Collection writes address rows by (event_id, position); the index also serves the lookups by event_id
+CREATE UNIQUE INDEX IF NOT EXISTS idx_event_images_event_position ON event_images (event_id, position);
+DROP INDEX IF EXISTS idx_event_images_event_id;
@@ -0,0 +1,40 @@
+-- Change tracking for delta sync (/api/events/changes). Every insert and update stamps the row with the
+-- id of the writing transaction, and every delete leaves a tombstone stamped the same way. Transaction
+-- ids rather than a sequence: a sequence value is taken before commit, so a client could sync past a
+-- value whose transaction had not committed yet and never see that row. Anything older than the oldest
+-- running transaction (pg_snapshot_xmin) is final, which is what sync tokens advance to.
+ALTER TABLE events ADD COLUMN IF NOT EXISTS change_xid xid8 NOT NULL DEFAULT pg_current_xact_id();
+
+CREATE INDEX IF NOT EXISTS idx_events_change_xid ON events (change_xid, id);
+
+CREATE TABLE IF NOT EXISTS event_tombstones (
+    event_id   UUID PRIMARY KEY,
+    change_xid xid8 NOT NULL DEFAULT pg_current_xact_id(),
+    deleted_at TIMESTAMP NOT NULL DEFAULT localtimestamp
+);
+
+CREATE INDEX IF NOT EXISTS idx_event_tombstones_change_xid ON event_tombstones (change_xid, event_id);
+
+-- Newest tombstone pruned so far; tokens from before it may have missed deletions
+CREATE TABLE IF NOT EXISTS event_sync_horizon (
+    id         BOOLEAN PRIMARY KEY DEFAULT true CHECK (id),
+    pruned_xid xid8 NOT NULL DEFAULT '0'
+);
+
+INSERT INTO event_sync_horizon DEFAULT VALUES ON CONFLICT DO NOTHING;
+
+CREATE OR REPLACE FUNCTION events_track_change() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        INSERT INTO event_tombstones (event_id) VALUES (OLD.id)
+        ON CONFLICT (event_id) DO UPDATE SET change_xid = EXCLUDED.change_xid, deleted_at = EXCLUDED.deleted_at;
+        RETURN OLD;
+    END IF;
+    NEW.change_xid := pg_current_xact_id();
+    RETURN NEW;
+END
+$$;
+
+DROP TRIGGER IF EXISTS events_track_change ON events;
+CREATE TRIGGER events_track_change BEFORE INSERT OR UPDATE OR DELETE ON events
+    FOR EACH ROW EXECUTE FUNCTION events_track_change();
@@ -0,0 +1,13 @@
+-- events.attendees is the seat count kept in step with user_subscriptions by SubscriptionService. Rows
+-- written before that, or by hand, may disagree with the subscriptions; set them from the real count.
+-- Only rows that differ are updated, so the others keep their change_xid and do not show up in delta sync.
+UPDATE events e
+SET attendees = counted.subscribed
+FROM (
+    SELECT ev.id, count(us.event_id)::int AS subscribed
+    FROM events ev
+    LEFT JOIN user_subscriptions us ON us.event_id = ev.id
+    GROUP BY ev.id
+) counted
+WHERE counted.id = e.id
+  AND e.attendees IS DISTINCT FROM counted.subscribed;
@@ -0,0 +1,76 @@
+package backend.cache;
+
+import backend.event.EventChangedEvent;
+import backend.event.EventChangedEvent.ChangeType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DashboardResponseCacheTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private DashboardResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        cache = new DashboardResponseCache(new ObjectMapper(), transactionManager, meterRegistry, 2);
+    }
+
+    @Test
+    void writesOnlyMarkEntriesStaleAndTheNextReadRebuilds() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("tags", () -> List.of("v" + loads.incrementAndGet()));
+        cache.get("tags", () -> List.of("v" + loads.incrementAndGet()));
+        assertThat(loads.get()).isEqualTo(1);
+
+        cache.onEventChanged(new EventChangedEvent(UUID.randomUUID(), ChangeType.DELETED, null, null));
+        assertThat(loads.get()).as("nothing is rebuilt until read").isEqualTo(1);
+
+        String json = new String(cache.get("tags", () -> List.of("v" + loads.incrementAndGet())).json(), StandardCharsets.UTF_8);
+        assertThat(json).isEqualTo("[\"v2\"]");
+    }
+
+    @Test
+    void failedLoadsAreNotKeptAndEntriesAreBounded() {
+        assertThatThrownBy(() -> cache.get("broken", () -> {
+            throw new IllegalArgumentException("bad size");
+        })).isInstanceOf(IllegalArgumentException.class);
+        assertThat(entries()).isZero();
+
+        cache.get("a", () -> "a");
+        cache.get("b", () -> "b");
+        cache.get("c", () -> "c");
+        assertThat(entries()).isEqualTo(2);
+    }
+
+    @Test
+    void onlyDatabaseLoadersRunInATransaction() {
+        cache.get("tags", () -> List.of("jazz"));
+        verify(transactionManager, never()).getTransaction(any());
+
+        cache.getFromDatabase("events", () -> List.of("Jazz night"));
+        verify(transactionManager).getTransaction(any());
+        verify(transactionManager).commit(any());
+    }
+
+    private double entries() {
+        return meterRegistry.get("dashboard.cache.entries").gauge().value();
+    }
+}
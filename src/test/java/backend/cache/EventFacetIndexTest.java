@@ -0,0 +1,109 @@
+package backend.cache;
+
+import backend.dto.FacetCount;
+import backend.event.CatalogResyncEvent;
+import backend.event.EventChangedEvent;
+import backend.event.EventChangedEvent.ChangeType;
+import backend.event.EventChangedEvent.EventSnapshot;
+import backend.repository.EventRepository;
+import backend.repository.EventRepository.FacetCountRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EventFacetIndexTest {
+    private EventRepository repository;
+    private EventFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(EventRepository.class);
+        when(repository.countPublicEventsByCategory()).thenReturn(List.of(row("music", 2), row("sport", 1)));
+        when(repository.countPublicEventsByTag()).thenReturn(List.of(row("rock", 2)));
+        index = new EventFacetIndex(repository);
+        index.rebuild();
+    }
+
+    @Test
+    void createdPublicEventIncrementsItsFacets() {
+        index.onEventChanged(change(ChangeType.CREATED, null, snapshot(true, "sport", "rock", "jazz", "jazz")));
+
+        assertThat(index.getCategories()).containsExactly(new FacetCount("music", 2), new FacetCount("sport", 2));
+        assertThat(index.getTags()).containsExactly(new FacetCount("rock", 3), new FacetCount("jazz", 1));
+    }
+
+    @Test
+    void updateMovesCountsAndDropsEmptyFacets() {
+        index.onEventChanged(change(ChangeType.UPDATED, snapshot(true, "sport", "rock"), snapshot(true, "music", "rock")));
+
+        assertThat(index.getCategories()).containsExactly(new FacetCount("music", 3));
+        assertThat(index.getTags()).containsExactly(new FacetCount("rock", 2));
+    }
+
+    @Test
+    void privateEventsAreNotCounted() {
+        index.onEventChanged(change(ChangeType.UPDATED, snapshot(true, "music", "rock"), snapshot(false, "music", "rock")));
+        index.onEventChanged(change(ChangeType.CREATED, null, snapshot(false, "film")));
+
+        assertThat(index.getCategories()).containsExactly(new FacetCount("music", 1), new FacetCount("sport", 1));
+        assertThat(index.getTags()).containsExactly(new FacetCount("rock", 1));
+    }
+
+    @Test
+    void changeArrivingDuringRebuildIsKept() {
+        // Committed after the tag counts were read, delivered before the rebuild swaps them in
+        when(repository.countPublicEventsByTag()).thenAnswer(invocation -> {
+            index.onEventChanged(change(ChangeType.CREATED, null, snapshot(true, "film", "rock")));
+            return List.of(row("rock", 2));
+        });
+
+        index.rebuild();
+
+        assertThat(index.getCategories()).containsExactly(new FacetCount("music", 2), new FacetCount("film", 1), new FacetCount("sport", 1));
+        assertThat(index.getTags()).containsExactly(new FacetCount("rock", 3));
+    }
+
+    @Test
+    void resyncDuringRebuildRebuildsAgainOnNextRead() {
+        when(repository.countPublicEventsByTag()).thenAnswer(invocation -> {
+            index.onResync(new CatalogResyncEvent());
+            return List.of(row("rock", 2));
+        }).thenReturn(List.of(row("rock", 5)));
+
+        index.rebuild();
+
+        assertThat(index.getTags()).containsExactly(new FacetCount("rock", 5));
+        verify(repository, times(3)).countPublicEventsByTag();
+    }
+
+    private static EventChangedEvent change(ChangeType type, EventSnapshot before, EventSnapshot after) {
+        return new EventChangedEvent(UUID.randomUUID(), type, before, after);
+    }
+
+    private static EventSnapshot snapshot(boolean isPublic, String category, String... tags) {
+        return new EventSnapshot(isPublic, category, List.of(tags), LocalDateTime.now(), null);
+    }
+
+    private static FacetCountRow row(String name, long count) {
+        return new FacetCountRow() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public long getCount() {
+                return count;
+            }
+        };
+    }
+}
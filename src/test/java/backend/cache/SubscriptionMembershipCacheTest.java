@@ -0,0 +1,131 @@
+package backend.cache;
+
+import backend.event.EventChangedEvent;
+import backend.event.EventChangedEvent.ChangeType;
+import backend.repository.UserSubscriptionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SubscriptionMembershipCacheTest {
+    private final UUID user = UUID.randomUUID();
+    private final UUID first = UUID.randomUUID();
+    private final UUID second = UUID.randomUUID();
+    private UserSubscriptionRepository repository;
+    private SimpleMeterRegistry meterRegistry;
+    private SubscriptionMembershipCache cache;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(UserSubscriptionRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        when(repository.findEventIdsByUserId(user)).thenReturn(List.of(first));
+        cache = newCache(100, 1 << 20);
+    }
+
+    @Test
+    void secondReadIsAHit() {
+        assertThat(cache.getEventIds(user)).containsExactly(first);
+        assertThat(cache.getEventIds(user)).containsExactly(first);
+
+        verify(repository, times(1)).findEventIdsByUserId(user);
+        assertThat(requests("hit")).isEqualTo(1);
+        assertThat(requests("miss")).isEqualTo(1);
+    }
+
+    @Test
+    void writesApplyToCachedUsersWithoutReloading() {
+        List<UUID> before = cache.getEventIds(user);
+        cache.subscribed(user, List.of(second));
+        cache.unsubscribed(user, List.of(first));
+
+        assertThat(cache.getEventIds(user)).containsExactly(second);
+        assertThat(before).as("lists already handed out do not change").containsExactly(first);
+        verify(repository, times(1)).findEventIdsByUserId(user);
+    }
+
+    @Test
+    void writesForUsersNotHeldAreNotCached() {
+        UUID other = UUID.randomUUID();
+        cache.subscribed(other, List.of(second));
+
+        assertThat(cache.userCount()).isZero();
+    }
+
+    @Test
+    void deletedEventIsRemovedFromEveryUser() {
+        cache.getEventIds(user);
+        cache.onEventChanged(new EventChangedEvent(first, ChangeType.DELETED, null, null));
+
+        assertThat(cache.getEventIds(user)).isEmpty();
+        verify(repository, times(1)).findEventIdsByUserId(user);
+    }
+
+    @Test
+    void loadThatRacedAWriteIsNotCached() {
+        // The write commits while the load is reading the subscriptions from before it
+        when(repository.findEventIdsByUserId(user)).thenAnswer(invocation -> {
+            cache.subscribed(user, List.of(second));
+            return List.of(first);
+        }).thenReturn(List.of(first, second));
+
+        assertThat(cache.getEventIds(user)).containsExactly(first);
+        assertThat(cache.getEventIds(user)).containsExactlyInAnyOrder(first, second);
+        verify(repository, times(2)).findEventIdsByUserId(user);
+    }
+
+    @Test
+    void userCountIsBounded() {
+        cache = newCache(3, 1 << 20);
+        List<UUID> users = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            UUID userId = UUID.randomUUID();
+            users.add(userId);
+            when(repository.findEventIdsByUserId(userId)).thenReturn(List.of(UUID.randomUUID()));
+            cache.getEventIds(userId);
+        }
+
+        assertThat(cache.userCount()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void byteBudgetIsBounded() {
+        cache = newCache(100, 4096);
+        List<UUID> many = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            many.add(UUID.randomUUID());
+        }
+        when(repository.findEventIdsByUserId(user)).thenReturn(many);
+
+        assertThat(cache.getEventIds(user)).hasSize(1000);
+        assertThat(cache.userCount()).as("a user larger than the whole budget is not kept").isZero();
+    }
+
+    @Test
+    void clearDropsEveryUser() {
+        cache.getEventIds(user);
+        cache.clear();
+
+        assertThat(cache.userCount()).isZero();
+        cache.getEventIds(user);
+        verify(repository, times(2)).findEventIdsByUserId(user);
+    }
+
+    private SubscriptionMembershipCache newCache(int maxUsers, long maxBytes) {
+        return new SubscriptionMembershipCache(repository, meterRegistry, maxUsers, maxBytes, Runnable::run);
+    }
+
+    private double requests(String result) {
+        return meterRegistry.counter("subscriptions.membership.cache.requests", "result", result).count();
+    }
+}
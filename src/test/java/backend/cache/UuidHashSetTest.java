@@ -0,0 +1,64 @@
+package backend.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidHashSetTest {
+
+    @Test
+    void addRemoveAndContainsMatchHashSet() {
+        Random random = new Random(42);
+        List<UUID> universe = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            universe.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+        UuidHashSet set = new UuidHashSet();
+        Set<UUID> expected = new HashSet<>();
+
+        for (int i = 0; i < 50_000; i++) {
+            UUID value = universe.get(random.nextInt(universe.size()));
+            if (random.nextInt(3) == 0) {
+                assertThat(set.remove(value)).isEqualTo(expected.remove(value));
+            } else {
+                assertThat(set.add(value)).isEqualTo(expected.add(value));
+            }
+        }
+
+        assertThat(set.size()).isEqualTo(expected.size());
+        assertThat(set.toList()).containsExactlyInAnyOrderElementsOf(expected);
+        universe.forEach(value -> assertThat(set.contains(value)).isEqualTo(expected.contains(value)));
+    }
+
+    @Test
+    void nilUuidIsAnOrdinaryMember() {
+        UUID nil = new UUID(0, 0);
+        UuidHashSet set = UuidHashSet.of(List.of(nil, UUID.randomUUID()));
+
+        assertThat(set.contains(nil)).isTrue();
+        assertThat(set.size()).isEqualTo(2);
+        assertThat(set.remove(nil)).isTrue();
+        assertThat(set.contains(nil)).isFalse();
+        assertThat(set.size()).isEqualTo(1);
+    }
+
+    @Test
+    void copyIsIndependent() {
+        UUID kept = UUID.randomUUID();
+        UuidHashSet set = UuidHashSet.of(List.of(kept));
+        UuidHashSet copy = set.copy();
+
+        copy.add(new UUID(0, 0));
+        copy.remove(kept);
+
+        assertThat(set.toList()).containsExactly(kept);
+        assertThat(copy.toList()).containsExactly(new UUID(0, 0));
+    }
+}
@@ -0,0 +1,107 @@
+package backend.controller;
+
+import backend.support.PostgresIntegrationTest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tokens issued by our own sign-in are accepted by the resource server next to Supabase tokens, and a
+ * password changed through an update signs in. A token that does not verify is ignored by public routes.
+ */
+@AutoConfigureMockMvc
+class AppUserAuthTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void signedInTokenAuthenticatesRequests() throws Exception {
+        String email = "auth-" + UUID.randomUUID() + "@example.com";
+        perform(post("/api/users/auth/signup").contentType(MediaType.APPLICATION_JSON).content("""
+                {"email":"%s","password":"correct-horse","firstName":"Ada","lastName":"Lovelace","role":"USER"}
+                """.formatted(email)));
+        JsonNode signIn = objectMapper.readTree(perform(post("/api/users/auth/signin")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"%s\",\"password\":\"correct-horse\"}".formatted(email)))
+                .getResponse().getContentAsString());
+        String token = signIn.get("token").asText();
+        assertThat(token).isNotBlank();
+
+        mockMvc.perform(get("/api/users/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value(email));
+        mockMvc.perform(get("/api/events").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+
+        String tampered = token.substring(0, token.length() - 4) + (token.endsWith("AAAA") ? "BBBB" : "AAAA");
+        mockMvc.perform(get("/api/users/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + tampered))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void publicRoutesIgnoreTokensThatDoNotVerify() throws Exception {
+        String email = "public-" + UUID.randomUUID() + "@example.com";
+        perform(post("/api/users/auth/signup").contentType(MediaType.APPLICATION_JSON).content("""
+                {"email":"%s","password":"correct-horse","firstName":"Ada","lastName":"Lovelace","role":"USER"}
+                """.formatted(email)));
+        String token = objectMapper.readTree(perform(post("/api/users/auth/signin")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"%s\",\"password\":\"correct-horse\"}".formatted(email)))
+                .getResponse().getContentAsString()).get("token").asText();
+        String tampered = token.substring(0, token.length() - 4) + (token.endsWith("AAAA") ? "BBBB" : "AAAA");
+
+        for (String badToken : new String[]{tampered, "not-a-jwt"}) {
+            mockMvc.perform(get("/api/events").header(HttpHeaders.AUTHORIZATION, "Bearer " + badToken))
+                    .andExpect(status().isOk());
+            mockMvc.perform(get("/api/users/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + badToken))
+                    .andExpect(status().isUnauthorized());
+        }
+    }
+
+    @Test
+    void updatedPasswordIsHashedAndSignsIn() throws Exception {
+        String email = "update-" + UUID.randomUUID() + "@example.com";
+        JsonNode signUp = objectMapper.readTree(perform(post("/api/users/auth/signup").contentType(MediaType.APPLICATION_JSON).content("""
+                {"email":"%s","password":"correct-horse","firstName":"Ada","lastName":"Lovelace","role":"USER"}
+                """.formatted(email))).getResponse().getContentAsString());
+        String id = signUp.get("user").get("id").asText();
+
+        perform(put("/api/users/{id}", id).contentType(MediaType.APPLICATION_JSON).content("""
+                {"email":"%s","password":"battery-staple","firstName":"Ada","lastName":"King","role":"USER"}
+                """.formatted(email)));
+
+        perform(post("/api/users/auth/signin")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"%s\",\"password\":\"battery-staple\"}".formatted(email)));
+        MvcResult unknown = mockMvc.perform(put("/api/users/{id}", UUID.randomUUID()).contentType(MediaType.APPLICATION_JSON).content("""
+                {"email":"%s","password":"battery-staple","firstName":"Ada","lastName":"King","role":"USER"}
+                """.formatted(email))).andReturn();
+        mockMvc.perform(asyncDispatch(unknown)).andExpect(status().isNotFound());
+    }
+
+    private MvcResult perform(RequestBuilder request) throws Exception {
+        MvcResult started = mockMvc.perform(request).andReturn();
+        return mockMvc.perform(asyncDispatch(started)).andExpect(status().is2xxSuccessful()).andReturn();
+    }
+}
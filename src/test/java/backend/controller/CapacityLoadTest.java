@@ -0,0 +1,452 @@
+package backend.controller;
+
+import backend.service.EventService;
+import backend.service.SubscriptionService;
+import backend.support.LoadTestDataset;
+import backend.support.RequiresPostgres;
+import backend.support.TestDatabase;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Capacity test: boots the app against a database seeded by {@link LoadTestDataset}, drives every event,
+ * dashboard and subscription endpoint with a weighted traffic mix from a closed loop of clients, and
+ * reports throughput and p50/p95/p99 latency per route on stdout and in
+ * {@code target/loadtest-report.csv}. Run with {@code mvn test -Ploadtest} and {@code EVENTY_LOADTEST_DB_URL}
+ * pointing at a database reserved for it: reseeding truncates the event, user and subscription tables,
+ * and the integration tests would otherwise spend minutes deleting the seed.
+ * <p>
+ * Settings are system properties: {@code loadtest.events} (1000000), {@code loadtest.users} (100000),
+ * {@code loadtest.subscriptions} (5000000), {@code loadtest.clients} (32), {@code loadtest.warmup} and
+ * {@code loadtest.duration} in seconds (15, 60), {@code loadtest.mix} as {@code route=weight,...} over the
+ * route names below, and {@code loadtest.max-p99-ms} to fail the run when any route's p99 exceeds it.
+ * Writes only touch events and subscriptions created during the run, and those are removed afterwards,
+ * so the seeded dataset is reused by the next run.
+ */
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "logging.level.backend=WARN",
+        "logging.level.org.springframework=WARN",
+        "logging.level.org.springframework.web=WARN",
+        "logging.level.org.hibernate=WARN",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "logging.level.com.zaxxer.hikari=WARN"
+})
+@RequiresPostgres
+class CapacityLoadTest {
+    private static final int EVENTS = Integer.getInteger("loadtest.events", 1_000_000);
+    private static final int USERS = Integer.getInteger("loadtest.users", 100_000);
+    private static final int SUBSCRIPTIONS = Integer.getInteger("loadtest.subscriptions", 5_000_000);
+    private static final int CLIENTS = Integer.getInteger("loadtest.clients", 32);
+    private static final Duration WARMUP = Duration.ofSeconds(Integer.getInteger("loadtest.warmup", 15));
+    private static final Duration RUN_TIME = Duration.ofSeconds(Integer.getInteger("loadtest.duration", 60));
+    private static final long MAX_P99_MILLIS = Long.getLong("loadtest.max-p99-ms", 0);
+    // Roughly the production split: browsing dominates, writes are a few percent. The NDJSON export
+    // streams every public event and is left out unless asked for.
+    private static final String DEFAULT_MIX = "events.list=15,events.next=5,events.get=15,events.upcoming=8,"
+            + "events.category=2,events.tag=2,events.search=4,events.range=2,events.range.calendar=4,events.by-user=4,events.create=2,events.update=1,events.dates=1,"
+            + "events.delete=1,events.export=0,dashboard.events=10,dashboard.events.next=3,dashboard.categories=4,"
+            + "dashboard.tags=4,subscriptions.list=12,subscriptions.subscribe=3,subscriptions.unsubscribe=2,"
+            + "subscriptions.batch=1,subscriptions.options=1";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private SubscriptionService subscriptionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final LoadTestDataset dataset = new LoadTestDataset(EVENTS, USERS, SUBSCRIPTIONS);
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .executor(Executors.newFixedThreadPool(2))
+            .build();
+    // Rows created by this run; updates and deletes only touch these so the seed stays intact
+    private final ConcurrentLinkedDeque<UUID> createdEvents = new ConcurrentLinkedDeque<>();
+    private final ConcurrentLinkedQueue<UUID[]> createdSubscriptions = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<String> lastCursor = new AtomicReference<>();
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", TestDatabase::loadTestUrl);
+        registry.add("spring.datasource.username", TestDatabase::loadTestUsername);
+        registry.add("spring.datasource.password", TestDatabase::loadTestPassword);
+        registry.add("spring.jpa.show-sql", () -> "false");
+    }
+
+    @BeforeEach
+    void seed() {
+        dataset.ensureSeeded(jdbcTemplate, transactionTemplate, passwordEncoder.encode("load-test-password"));
+    }
+
+    @AfterEach
+    void removeRunData() {
+        UUID[] subscription;
+        while ((subscription = createdSubscriptions.poll()) != null) {
+            subscriptionService.unsubscribeFromEvent(subscription[0], subscription[1]);
+        }
+        createdEvents.forEach(eventService::deleteEvent);
+    }
+
+    @Test
+    void mixedTrafficAtScale() throws Exception {
+        Map<String, Route> routes = routes();
+        List<Route> mix = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        parseMix(System.getProperty("loadtest.mix", DEFAULT_MIX)).forEach((name, weight) -> {
+            Route route = routes.get(name);
+            if (route == null) {
+                throw new IllegalArgumentException("Unknown load-test route " + name + ", expected one of " + routes.keySet());
+            }
+            if (weight > 0) {
+                mix.add(route);
+                weights.add(weight);
+            }
+        });
+        int[] cumulative = new int[weights.size()];
+        for (int i = 0, sum = 0; i < cumulative.length; i++) {
+            sum += weights.get(i);
+            cumulative[i] = sum;
+        }
+
+        long measureFrom = System.nanoTime() + WARMUP.toNanos();
+        long deadline = measureFrom + RUN_TIME.toNanos();
+        CountDownLatch finished = new CountDownLatch(CLIENTS);
+        for (int i = 0; i < CLIENTS; i++) {
+            new Runnable() {
+                @Override
+                public void run() {
+                    if (System.nanoTime() >= deadline) {
+                        finished.countDown();
+                        return;
+                    }
+                    Route route = pick(mix, cumulative);
+                    Call call = route.call().get();
+                    if (call == null) {
+                        // Nothing for this route to act on yet, e.g. a delete before any create
+                        CompletableFuture.runAsync(this);
+                        return;
+                    }
+                    long started = System.nanoTime();
+                    client.sendAsync(call.request(), HttpResponse.BodyHandlers.ofByteArray()).whenComplete((response, error) -> {
+                        route.record(started >= measureFrom, call, response, System.nanoTime() - started);
+                        run();
+                    });
+                }
+            }.run();
+        }
+        assertThat(finished.await(WARMUP.plus(RUN_TIME).toSeconds() + 120, TimeUnit.SECONDS)).isTrue();
+
+        report(mix);
+        assertThat(mix.stream().mapToInt(route -> route.latencies.size()).sum()).as("completed requests").isPositive();
+        assertThat(mix).allSatisfy(route -> {
+            assertThat(route.failed).as("%s server errors", route.name).hasValue(0);
+            if (MAX_P99_MILLIS > 0 && !route.latencies.isEmpty()) {
+                assertThat(route.millis(0.99)).as("%s p99 ms", route.name).isLessThanOrEqualTo(MAX_P99_MILLIS);
+            }
+        });
+    }
+
+    private Map<String, Route> routes() {
+        Map<String, Route> routes = new LinkedHashMap<>();
+        add(routes, route("events.list", "GET /api/events", () -> get("/api/events?size=20"), this::rememberCursor));
+        add(routes, route("events.next", "GET /api/events?cursor", () -> get("/api/events?size=20" + cursorParameter()),
+                this::rememberCursor));
+        add(routes, route("events.get", "GET /api/events/{id}", () -> get("/api/events/" + randomEvent()), null));
+        add(routes, route("events.upcoming", "GET /api/events/upcoming", () -> get("/api/events/upcoming?limit=20"), null));
+        add(routes, route("events.category", "GET /api/events/category/{category}",
+                () -> get("/api/events/category/category-" + random(LoadTestDataset.CATEGORIES)), null));
+        add(routes, route("events.tag", "GET /api/events/tag/{tag}",
+                () -> get("/api/events/tag/tag-" + random(LoadTestDataset.TAGS)), null));
+        add(routes, route("events.search", "GET /api/events/search",
+                () -> get("/api/events/search?size=20&q=venue+" + random(500)), null));
+        add(routes, route("events.range", "GET /api/events/range", () -> {
+            LocalDate from = LocalDate.now().minusDays(365).plusDays(random(730)).withDayOfMonth(1);
+            return get("/api/events/range?from=" + from + "&to=" + from.plusMonths(1));
+        }, null));
+        add(routes, route("events.range.calendar", "GET /api/events/range?view=calendar", () -> {
+            LocalDate from = LocalDate.now().minusDays(365).plusDays(random(730)).withDayOfMonth(1);
+            return get("/api/events/range?view=calendar&from=" + from + "&to=" + from.plusMonths(1));
+        }, null));
+        add(routes, route("events.by-user", "GET /api/events/by-user",
+                () -> get("/api/events/by-user?userId=" + dataset.userId(random(dataset.users()))), null));
+        add(routes, route("events.export", "GET /api/events/export", () -> get("/api/events/export"), null));
+        add(routes, route("events.create", "POST /api/events",
+                () -> send("POST", "/api/events", eventJson()), body -> createdEvents.add(UUID.fromString(json(body).get("id").asText()))));
+        add(routes, route("events.update", "PUT /api/events/{id}",
+                () -> withCreatedEvent(id -> send("PUT", "/api/events/" + id, eventJson())), null));
+        add(routes, route("events.dates", "PATCH /api/events/{id}/dates", () -> withCreatedEvent(id -> {
+            LocalDateTime start = LocalDateTime.now().plusDays(random(365) + 1).withNano(0);
+            return send("PATCH", "/api/events/" + id + "/dates",
+                    "{\"start\":\"%s\",\"end\":\"%s\"}".formatted(start, start.plusHours(2)));
+        }), null));
+        add(routes, route("events.delete", "DELETE /api/events/{id}", () -> {
+            UUID id = createdEvents.pollFirst();
+            return id == null ? null : send("DELETE", "/api/events/" + id, null);
+        }, null));
+        add(routes, route("dashboard.events", "GET /api/dashboard/events", () -> get("/api/dashboard/events?size=20"),
+                this::rememberCursor));
+        add(routes, route("dashboard.events.next", "GET /api/dashboard/events?cursor",
+                () -> get("/api/dashboard/events?size=20" + cursorParameter()), this::rememberCursor));
+        add(routes, route("dashboard.categories", "GET /api/dashboard/categories", () -> get("/api/dashboard/categories"), null));
+        add(routes, route("dashboard.tags", "GET /api/dashboard/tags", () -> get("/api/dashboard/tags"), null));
+        add(routes, route("subscriptions.list", "GET /api/dashboard/subscriptions",
+                () -> get("/api/dashboard/subscriptions?userId=" + dataset.userId(random(dataset.users()))), null));
+        add(routes, new Route("subscriptions.subscribe", "POST /api/dashboard/subscriptions/{eventId}", () -> {
+            UUID[] pair = newSubscription(random(dataset.users()));
+            return new Call(send("POST", "/api/dashboard/subscriptions/" + pair[1], "{\"userId\":\"%s\"}".formatted(pair[0])),
+                    body -> createdSubscriptions.add(pair));
+        }));
+        add(routes, route("subscriptions.unsubscribe", "POST /api/dashboard/subscriptions/{eventId}/unsubscribe", () -> {
+            UUID[] pair = createdSubscriptions.poll();
+            return pair == null ? null
+                    : send("POST", "/api/dashboard/subscriptions/" + pair[1] + "/unsubscribe?userId=" + pair[0], null);
+        }, null));
+        add(routes, new Route("subscriptions.batch", "POST /api/dashboard/subscriptions:batch", () -> {
+            int user = random(dataset.users());
+            List<UUID[]> pairs = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                pairs.add(newSubscription(user));
+            }
+            String subscribe = String.join(",", pairs.stream().map(pair -> "\"" + pair[1] + "\"").toList());
+            return new Call(send("POST", "/api/dashboard/subscriptions:batch",
+                    "{\"userId\":\"%s\",\"subscribe\":[%s],\"unsubscribe\":[]}".formatted(dataset.userId(user), subscribe)),
+                    body -> createdSubscriptions.addAll(pairs));
+        }));
+        add(routes, route("subscriptions.options", "OPTIONS /api/dashboard/subscriptions/{eventId}",
+                () -> send("OPTIONS", "/api/dashboard/subscriptions/" + randomEvent(), null), null));
+        return routes;
+    }
+
+    private static void add(Map<String, Route> routes, Route route) {
+        routes.put(route.name, route);
+    }
+
+    private static Route route(String name, String endpoint, Supplier<HttpRequest> request, Consumer<byte[]> onSuccess) {
+        return new Route(name, endpoint, () -> {
+            HttpRequest built = request.get();
+            return built == null ? null : new Call(built, onSuccess);
+        });
+    }
+
+    private HttpRequest get(String path) {
+        return send("GET", path, null);
+    }
+
+    private HttpRequest send(String method, String path, String json) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(60));
+        if (json == null) {
+            return builder.method(method, HttpRequest.BodyPublishers.noBody()).build();
+        }
+        return builder.header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpRequest withCreatedEvent(Function<UUID, HttpRequest> request) {
+        UUID id = createdEvents.peekLast();
+        return id == null ? null : request.apply(id);
+    }
+
+    private String eventJson() {
+        int n = random(1_000_000);
+        LocalDateTime start = LocalDateTime.now().plusDays(random(365) + 1).withNano(0);
+        return """
+                {"title":"Load test %d","description":"Created by the capacity test","start":"%s","end":"%s",
+                 "location":"Venue %d","category":"category-%d","tags":["Tag-%d","Tag-%d"],"isPublic":true,
+                 "maxAttendees":500,"userId":"%s",
+                 "images":[{"imageUrl":"https://cdn.eventy.test/load/%d.jpg","caption":"Cover","isPrimary":true,"order":0}]}
+                """.formatted(n, start, start.plusHours(3), n % 500, n % LoadTestDataset.CATEGORIES,
+                n % LoadTestDataset.TAGS, (n * 7 + 3) % LoadTestDataset.TAGS, dataset.userId(random(dataset.users())), n);
+    }
+
+    // A pair outside the seed, so cleaning up after the run cannot remove seeded subscriptions
+    private UUID[] newSubscription(int user) {
+        int event;
+        do {
+            event = random(dataset.events());
+        } while (dataset.isSeededSubscription(user, event));
+        return new UUID[]{dataset.userId(user), dataset.eventId(event)};
+    }
+
+    private UUID randomEvent() {
+        return dataset.eventId(dataset.publicEvent(random(dataset.events())));
+    }
+
+    private String cursorParameter() {
+        String cursor = lastCursor.get();
+        return cursor == null ? "" : "&cursor=" + URLEncoder.encode(cursor, StandardCharsets.UTF_8);
+    }
+
+    private void rememberCursor(byte[] body) {
+        JsonNode nextCursor = json(body).get("nextCursor");
+        // Wrap around at the end of the listing
+        lastCursor.set(nextCursor == null || nextCursor.isNull() ? null : nextCursor.asText());
+    }
+
+    private JsonNode json(byte[] body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Route pick(List<Route> mix, int[] cumulative) {
+        int ticket = ThreadLocalRandom.current().nextInt(cumulative[cumulative.length - 1]);
+        int index = Arrays.binarySearch(cumulative, ticket + 1);
+        return mix.get(index >= 0 ? index : -index - 1);
+    }
+
+    private static int random(int bound) {
+        return ThreadLocalRandom.current().nextInt(bound);
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected route=weight in loadtest.mix, got " + entry);
+            }
+            weights.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+
+    private void report(List<Route> mix) throws IOException {
+        double seconds = RUN_TIME.toMillis() / 1000.0;
+        StringBuilder csv = new StringBuilder("route,endpoint,requests,throughput_per_s,p50_ms,p95_ms,p99_ms,client_errors,server_errors\n");
+        System.out.printf("%s: %d events, %d users, %d subscriptions; %d clients for %ds after %ds warm-up%n",
+                getClass().getSimpleName(), EVENTS, USERS, SUBSCRIPTIONS, CLIENTS, RUN_TIME.toSeconds(), WARMUP.toSeconds());
+        System.out.printf("  %-26s %9s %8s %8s %8s %6s %6s%n", "route", "req/s", "p50 ms", "p95 ms", "p99 ms", "4xx", "5xx");
+        for (Route route : mix) {
+            int requests = route.latencies.size();
+            System.out.printf("  %-26s %9.1f %8.1f %8.1f %8.1f %6d %6d%n", route.name, requests / seconds,
+                    route.millis(0.50), route.millis(0.95), route.millis(0.99), route.rejected.get(), route.failed.get());
+            csv.append("%s,%s,%d,%.2f,%.2f,%.2f,%.2f,%d,%d%n".formatted(route.name, route.endpoint, requests, requests / seconds,
+                    route.millis(0.50), route.millis(0.95), route.millis(0.99), route.rejected.get(), route.failed.get()));
+        }
+        Files.writeString(Path.of("target", "loadtest-report.csv"), csv);
+    }
+
+    private static final class Route {
+        private final String name;
+        private final String endpoint;
+        private final Supplier<Call> call;
+        private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger rejected = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private long[] sorted;
+
+        Route(String name, String endpoint, Supplier<Call> call) {
+            this.name = name;
+            this.endpoint = endpoint;
+            this.call = call;
+        }
+
+        Supplier<Call> call() {
+            return call;
+        }
+
+        void record(boolean measured, Call call, HttpResponse<byte[]> response, long nanos) {
+            int status = response == null ? 0 : response.statusCode();
+            if (status >= 200 && status < 300 && call.onSuccess() != null) {
+                call.onSuccess().accept(response.body());
+            }
+            if (!measured) {
+                return;
+            }
+            if (status >= 200 && status < 300) {
+                latencies.add(nanos);
+            } else if (status >= 400 && status < 500) {
+                // Expected now and then, e.g. an update racing the delete of the same event
+                rejected.incrementAndGet();
+            } else {
+                failed.incrementAndGet();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+
+        double millis(double quantile) {
+            if (sorted == null || sorted.length != latencies.size()) {
+                sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+                Arrays.sort(sorted);
+            }
+            if (sorted.length == 0) {
+                return Double.NaN;
+            }
+            return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)] / 1e6;
+        }
+    }
+
+    // One request and what to remember once it succeeds
+    private record Call(HttpRequest request, Consumer<byte[]> onSuccess) {
+    }
+}
@@ -0,0 +1,119 @@
+package backend.controller;
+
+import backend.model.Events;
+import backend.repository.EventRepository;
+import backend.service.EventService;
+import backend.service.SubscriptionService;
+import backend.support.PostgresIntegrationTest;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Read endpoints answer a matching If-None-Match with 304 without reaching the service, and any
+ * committed event write or seat change on a public event changes the tag. Upcoming events also depend
+ * on the clock and carry no tag.
+ */
+@AutoConfigureMockMvc
+class ConditionalGetTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private SubscriptionService subscriptionService;
+
+    @MockitoSpyBean
+    private EventService eventService;
+
+    private UUID eventId;
+
+    @BeforeEach
+    void createEvent() {
+        eventRepository.deleteAllInBatch();
+        Events event = new Events();
+        event.setTitle("Board games");
+        event.setStart(LocalDateTime.now().plusDays(2));
+        event.setIsPublic(true);
+        event.setAttendees(0);
+        event.setUserId(UUID.randomUUID());
+        eventId = eventService.createEvent(event).getId();
+    }
+
+    @Test
+    void matchingTagIsAnsweredWithoutReadingEvents() throws Exception {
+        String etag = mockMvc.perform(get("/api/events/" + eventId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotBlank();
+        clearInvocations(eventService);
+
+        mockMvc.perform(get("/api/events/" + eventId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/events").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        verify(eventService, never()).getEventById(any());
+        verify(eventService, never()).getPublicEvents(any(), any(), any());
+    }
+
+    @Test
+    void writesChangeTheTag() throws Exception {
+        String initial = etag();
+
+        eventService.patchEvent(eventId, JsonNodeFactory.instance.objectNode().put("title", "Board games night"));
+        String afterEventWrite = etag();
+        subscriptionService.subscribeToEvent(UUID.randomUUID(), eventId);
+        String afterSubscription = etag();
+
+        assertThat(afterEventWrite).isNotEqualTo(initial);
+        assertThat(afterSubscription).isNotEqualTo(afterEventWrite);
+        mockMvc.perform(get("/api/events/" + eventId).header(HttpHeaders.IF_NONE_MATCH, initial))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void seatChangesOnPrivateEventsKeepTheTagAndUpcomingIsNotTagged() throws Exception {
+        Events hidden = new Events();
+        hidden.setTitle("Staff meeting");
+        hidden.setStart(LocalDateTime.now().plusDays(2));
+        hidden.setIsPublic(false);
+        hidden.setAttendees(0);
+        hidden.setUserId(UUID.randomUUID());
+        UUID hiddenId = eventService.createEvent(hidden).getId();
+        String before = etag();
+
+        subscriptionService.subscribeToEvent(UUID.randomUUID(), hiddenId);
+
+        assertThat(etag()).isEqualTo(before);
+        mockMvc.perform(get("/api/events/upcoming"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    private String etag() throws Exception {
+        return mockMvc.perform(get("/api/events")).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
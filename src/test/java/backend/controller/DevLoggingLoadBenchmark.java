@@ -0,0 +1,8 @@
+package backend.controller;
+
+/**
+ * {@link LoggingProfileLoadBenchmark} with the default properties: SQL echoed to stdout, DEBUG logging
+ * for Spring, Hibernate and the application, synchronous console appender.
+ */
+class DevLoggingLoadBenchmark extends LoggingProfileLoadBenchmark {
+}
@@ -0,0 +1,173 @@
+package backend.controller;
+
+import backend.model.Events;
+import backend.repository.EventRepository;
+import backend.service.EventService;
+import backend.service.EventTombstonePruner;
+import backend.support.PostgresIntegrationTest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Delta sync returns what changed since a token: updated and new events, and removals for deleted and
+ * privatized ones. A change whose transaction commits after a newer one is still delivered.
+ */
+@AutoConfigureMockMvc
+class EventChangesTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventTombstonePruner tombstonePruner;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<UUID> ids = new ArrayList<>();
+
+    @BeforeEach
+    void createEvents() {
+        eventRepository.deleteAllInBatch();
+        ids.clear();
+        for (int i = 0; i < 5; i++) {
+            ids.add(eventService.createEvent(event("Event " + i, i != 4)).getId());
+        }
+    }
+
+    @Test
+    void firstSyncPagesThroughPublicEventsThenOnlyChangesFollow() throws Exception {
+        List<String> synced = new ArrayList<>();
+        JsonNode page = sync(null, 3);
+        synced.addAll(eventIds(page));
+        assertThat(page.get("hasMore").asBoolean()).isTrue();
+        page = sync(page.get("token").asText(), 3);
+        synced.addAll(eventIds(page));
+        assertThat(page.get("hasMore").asBoolean()).isFalse();
+        assertThat(synced).containsExactlyInAnyOrder(id(0), id(1), id(2), id(3));
+        assertThat(page.get("removed")).isEmpty();
+        String token = page.get("token").asText();
+
+        eventService.updateEvent(ids.get(0), event("Event 0, renamed", true));
+        eventService.deleteEvent(ids.get(1));
+        eventService.updateEvent(ids.get(2), event("Event 2", false));
+        UUID created = eventService.createEvent(event("Event 5", true)).getId();
+
+        JsonNode changes = sync(token, 50);
+        assertThat(eventIds(changes)).containsExactlyInAnyOrder(id(0), created.toString());
+        assertThat(changes.get("events").get(0).get("title").asText()).isEqualTo("Event 0, renamed");
+        assertThat(removedIds(changes)).containsExactlyInAnyOrder(id(1), id(2));
+
+        JsonNode idle = sync(changes.get("token").asText(), 50);
+        assertThat(idle.get("events")).isEmpty();
+        assertThat(idle.get("removed")).isEmpty();
+    }
+
+    @Test
+    void changeCommittedLateIsNotSkipped() throws Exception {
+        String token = sync(null, 50).get("token").asText();
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // An older transaction writes first and commits after a newer one
+        CompletableFuture<Void> slow = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE events SET title = 'Slow writer' WHERE id = ?", ids.get(0));
+            written.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertThat(written.await(10, TimeUnit.SECONDS)).isTrue();
+        eventService.updateEvent(ids.get(3), event("Fast writer", true));
+
+        JsonNode whileOpen = sync(token, 50);
+        assertThat(whileOpen.get("events")).as("nothing past the open transaction is final yet").isEmpty();
+
+        release.countDown();
+        slow.get(10, TimeUnit.SECONDS);
+        JsonNode afterCommit = sync(whileOpen.get("token").asText(), 50);
+        assertThat(eventIds(afterCommit)).containsExactlyInAnyOrder(id(0), id(3));
+    }
+
+    @Test
+    void tokenOlderThanPrunedTombstonesIsGone() throws Exception {
+        String token = sync(null, 50).get("token").asText();
+        eventService.deleteEvent(ids.get(0));
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                "UPDATE event_tombstones SET deleted_at = deleted_at - interval '365 days'"));
+        try {
+            tombstonePruner.prune();
+            mockMvc.perform(get("/api/events/changes").param("since", token)).andExpect(status().isGone());
+            mockMvc.perform(get("/api/events/changes")).andExpect(status().isOk());
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                    "UPDATE event_sync_horizon SET pruned_xid = '0'"));
+        }
+    }
+
+    private JsonNode sync(String token, int size) throws Exception {
+        var request = get("/api/events/changes").param("size", String.valueOf(size));
+        if (token != null) {
+            request.param("since", token);
+        }
+        String body = mockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private String id(int index) {
+        return ids.get(index).toString();
+    }
+
+    private static List<String> eventIds(JsonNode page) {
+        List<String> result = new ArrayList<>();
+        page.get("events").forEach(event -> result.add(event.get("id").asText()));
+        return result;
+    }
+
+    private static List<String> removedIds(JsonNode page) {
+        List<String> result = new ArrayList<>();
+        page.get("removed").forEach(id -> result.add(id.asText()));
+        return result;
+    }
+
+    private static Events event(String title, boolean isPublic) {
+        Events event = new Events();
+        event.setTitle(title);
+        event.setStart(LocalDateTime.now().plusDays(3));
+        event.setIsPublic(isPublic);
+        event.setUserId(UUID.randomUUID());
+        return event;
+    }
+}
@@ -0,0 +1,100 @@
+package backend.controller;
+
+import backend.dto.EventDatesRequest;
+import backend.model.Events;
+import backend.repository.EventRepository;
+import backend.service.EventDatesWriteBehind;
+import backend.support.PostgresIntegrationTest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * {@code PATCH /api/events/{id}/dates} acknowledges with 202 and the version the event will have, and
+ * answers 409 to an update based on a version that has been replaced.
+ */
+@AutoConfigureMockMvc
+@TestPropertySource(properties = "events.dates.flush-interval=PT1H")
+class EventDatesTest extends PostgresIntegrationTest {
+    private static final LocalDateTime START = LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.MINUTES);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventDatesWriteBehind writeBehind;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private UUID eventId;
+
+    @BeforeEach
+    void createEvent() {
+        writeBehind.flush();
+        eventRepository.deleteAllInBatch();
+        Events event = new Events();
+        event.setTitle("Board meeting");
+        event.setStart(START);
+        event.setIsPublic(true);
+        event.setUserId(UUID.randomUUID());
+        eventId = eventRepository.save(event).getId();
+    }
+
+    @Test
+    void updateIsAcceptedWithTheVersionItWillProduce() throws Exception {
+        JsonNode accepted = objectMapper.readTree(moveTo(eventId, START.plusHours(1), 0L)
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").value(eventId.toString()))
+                .andReturn().getResponse().getContentAsString());
+        assertThat(accepted.get("version").asLong()).isEqualTo(1L);
+
+        // The acknowledged version is accepted while the first update is still queued
+        moveTo(eventId, START.plusHours(2), accepted.get("version").asLong()).andExpect(status().isAccepted());
+        writeBehind.flush();
+
+        Events written = eventRepository.findById(eventId).orElseThrow();
+        assertThat(written.getStart()).isEqualTo(START.plusHours(2));
+        assertThat(written.getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void updateBasedOnAReplacedVersionIsRejected() throws Exception {
+        moveTo(eventId, START.plusHours(1), 0L).andExpect(status().isAccepted());
+        writeBehind.flush();
+
+        moveTo(eventId, START.plusHours(2), 0L).andExpect(status().isConflict());
+        writeBehind.flush();
+        assertThat(eventRepository.findById(eventId).orElseThrow().getStart()).isEqualTo(START.plusHours(1));
+    }
+
+    @Test
+    void unknownEventIsNotFound() throws Exception {
+        moveTo(UUID.randomUUID(), START, null).andExpect(status().isNotFound());
+    }
+
+    private ResultActions moveTo(UUID id, LocalDateTime start, Long version) throws Exception {
+        return mockMvc.perform(patch("/api/events/{id}/dates", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new EventDatesRequest(start, null, version))));
+    }
+}
@@ -0,0 +1,121 @@
+package backend.controller;
+
+import backend.repository.EventRepository;
+import backend.support.PostgresIntegrationTest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The NDJSON export writes every public event exactly once, one object per line, across the chunks it
+ * reads and clears, and leaves the second-level cache alone.
+ */
+@AutoConfigureMockMvc
+class EventExportTest extends PostgresIntegrationTest {
+    // More than two export chunks of 500, with runs of equal start times across the chunk boundaries
+    private static final int PUBLIC_EVENTS = 1_234;
+    private static final int PRIVATE_EVENTS = 40;
+    private static final int WITH_IMAGES = 20;
+    private static final LocalDateTime START = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MINUTES);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final Set<UUID> publicIds = new HashSet<>();
+    private final Set<UUID> privateIds = new HashSet<>();
+
+    @BeforeEach
+    void seedEvents() {
+        eventRepository.deleteAllInBatch();
+        publicIds.clear();
+        privateIds.clear();
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < PUBLIC_EVENTS + PRIVATE_EVENTS; i++) {
+            boolean isPublic = i < PUBLIC_EVENTS;
+            UUID id = UUID.randomUUID();
+            (isPublic ? publicIds : privateIds).add(id);
+            rows.add(new Object[]{id, "Event " + i, Timestamp.valueOf(START.plusMinutes(i / 7)), isPublic, UUID.randomUUID()});
+        }
+        List<UUID> withImages = publicIds.stream().limit(WITH_IMAGES).toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate("INSERT INTO events (id, title, start, is_public, user_id) VALUES (?, ?, ?, ?, ?)", rows);
+            jdbcTemplate.batchUpdate("INSERT INTO event_images (event_id, image_url, is_primary, position) VALUES (?, ?, true, 0)",
+                    withImages.stream().map(id -> new Object[]{id, "https://img.example/" + id + ".jpg"}).toList());
+        });
+    }
+
+    @Test
+    void exportsEveryPublicEventOncePerLine() throws Exception {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+
+        MvcResult started = mockMvc.perform(get("/api/events/export")).andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body).endsWith("\n");
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(PUBLIC_EVENTS);
+        Set<UUID> exported = new HashSet<>();
+        int imagesExported = 0;
+        LocalDateTime previousStart = null;
+        for (String line : lines) {
+            JsonNode event = objectMapper.readTree(line);
+            assertThat(event.isObject()).as("line %s", line).isTrue();
+            UUID id = UUID.fromString(event.get("id").asText());
+            assertThat(exported.add(id)).as("exported once: %s", id).isTrue();
+            LocalDateTime start = LocalDateTime.parse(event.get("start").asText());
+            assertThat(previousStart == null || !start.isBefore(previousStart)).as("ordered by start").isTrue();
+            previousStart = start;
+            imagesExported += event.get("images").size();
+        }
+        assertThat(exported).isEqualTo(publicIds).doesNotContainAnyElementsOf(privateIds);
+        assertThat(imagesExported).isEqualTo(WITH_IMAGES);
+        assertThat(statistics.getSecondLevelCachePutCount()).as("entries put in the second-level cache").isZero();
+    }
+}
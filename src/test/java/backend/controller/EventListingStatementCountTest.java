@@ -0,0 +1,99 @@
+package backend.controller;
+
+import backend.model.EventImage;
+import backend.model.Events;
+import backend.repository.EventRepository;
+import backend.support.PostgresIntegrationTest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards against the Events.images N+1: list endpoints must issue a bounded number of statements
+ * no matter how many events (each with images) they return.
+ */
+@AutoConfigureMockMvc
+class EventListingStatementCountTest extends PostgresIntegrationTest {
+    private static final UUID OWNER = UUID.randomUUID();
+    private static final int EVENT_COUNT = 60;
+    private static final long MAX_STATEMENTS = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void seedEvents() {
+        eventRepository.deleteAllInBatch();
+        List<Events> events = new ArrayList<>();
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            Events event = new Events();
+            event.setTitle("Event " + i);
+            event.setStart(LocalDateTime.now().plusDays(i + 1));
+            event.setIsPublic(true);
+            event.setCategory("music");
+            event.setTags(List.of("rock"));
+            event.setUserId(OWNER);
+            event.setImages(List.of(image(i, 0), image(i, 1), image(i, 2)));
+            events.add(event);
+        }
+        eventRepository.saveAll(events);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/api/events?size=50",
+            "/api/events?size=50&view=summary",
+            "/api/dashboard/events?size=50",
+            "/api/events/category/music",
+            "/api/events/tag/rock",
+            "/api/events/upcoming?limit=50",
+            "/api/events/search?q=event&size=50",
+            "/api/events/range?from={from}&to={to}",
+            "/api/events/range?from={from}&to={to}&view=calendar",
+            "/api/events/changes?size=50",
+            "/api/events/by-user?userId=" + "{owner}"
+    })
+    void listEndpointsIssueBoundedStatements(String uri) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        String resolved = uri.replace("{owner}", OWNER.toString())
+                .replace("{from}", LocalDate.now().toString())
+                .replace("{to}", LocalDate.now().plusDays(EVENT_COUNT + 1).toString());
+        mockMvc.perform(get(resolved)).andExpect(status().isOk());
+
+        assertThat(statistics.getPrepareStatementCount())
+                .as("statements issued by GET %s", uri)
+                .isLessThanOrEqualTo(MAX_STATEMENTS);
+    }
+
+    private static EventImage image(int event, int index) {
+        EventImage image = new EventImage();
+        image.setImageUrl("https://img.example/" + event + "/" + index + ".jpg");
+        image.setCaption("Image " + index);
+        image.setIsPrimary(index == 0);
+        return image;
+    }
+}
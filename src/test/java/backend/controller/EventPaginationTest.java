@@ -0,0 +1,141 @@
+package backend.controller;
+
+import backend.repository.EventRepository;
+import backend.support.PostgresIntegrationTest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Walking {@code /api/events} by {@code nextCursor} returns every public event once, in (start, id) order,
+ * even where start times tie across page boundaries, and ends with a null cursor. A cursor that does not
+ * decode is rejected.
+ */
+@AutoConfigureMockMvc
+class EventPaginationTest extends PostgresIntegrationTest {
+    // Prime, so only a page size of one divides the events evenly
+    private static final int PUBLIC_EVENTS = 53;
+    private static final int PRIVATE_EVENTS = 12;
+    private static final LocalDateTime START = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MINUTES);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<Seeded> publicEvents = new ArrayList<>();
+    private final Set<UUID> privateIds = new HashSet<>();
+
+    @BeforeEach
+    void seedEvents() {
+        eventRepository.deleteAllInBatch();
+        publicEvents.clear();
+        privateIds.clear();
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < PUBLIC_EVENTS + PRIVATE_EVENTS; i++) {
+            boolean isPublic = i % 5 != 4 || privateIds.size() == PRIVATE_EVENTS;
+            UUID id = UUID.randomUUID();
+            // Runs of four events share a start, private ones among them
+            LocalDateTime start = START.plusMinutes(i / 4);
+            if (isPublic) {
+                publicEvents.add(new Seeded(id, start));
+            } else {
+                privateIds.add(id);
+            }
+            rows.add(new Object[]{id, "Event " + i, Timestamp.valueOf(start), isPublic, UUID.randomUUID()});
+        }
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate("INSERT INTO events (id, title, start, is_public, user_id) VALUES (?, ?, ?, ?, ?)", rows));
+        // Postgres orders uuids by their bytes, which is the order of their text form
+        publicEvents.sort(Comparator.comparing(Seeded::start).thenComparing(seeded -> seeded.id().toString()));
+    }
+
+    @Test
+    void cursorWalksEveryPublicEventOnceInOrder() throws Exception {
+        assertThat(publicEvents).hasSize(PUBLIC_EVENTS);
+        for (String view : new String[]{"full", "summary"}) {
+            for (int size : new int[]{1, 4, 10, PUBLIC_EVENTS - 1}) {
+                assertThat(walk(size, view)).as("view %s, size %d", view, size)
+                        .containsExactlyElementsOf(publicEvents.stream().map(Seeded::id).toList())
+                        .doesNotContainAnyElementsOf(privateIds);
+            }
+        }
+    }
+
+    @Test
+    void singlePageHasNoNextCursor() throws Exception {
+        JsonNode page = page(get("/api/events").param("size", String.valueOf(PUBLIC_EVENTS)));
+        assertThat(page.get("items")).hasSize(PUBLIC_EVENTS);
+        assertThat(page.get("nextCursor").isNull()).isTrue();
+    }
+
+    @Test
+    void malformedCursorIsRejected() throws Exception {
+        String notACursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("yesterday|someone".getBytes(StandardCharsets.UTF_8));
+        for (String cursor : new String[]{"not a cursor!", notACursor}) {
+            mockMvc.perform(get("/api/events").param("cursor", cursor)).andExpect(status().isBadRequest());
+        }
+    }
+
+    private List<UUID> walk(int size, String view) throws Exception {
+        List<UUID> ids = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            MockHttpServletRequestBuilder request = get("/api/events").param("size", String.valueOf(size)).param("view", view);
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            JsonNode page = page(request);
+            pages++;
+            page.get("items").forEach(item -> ids.add(UUID.fromString(item.get("id").asText())));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            // The cursor runs out exactly at the last event, without an empty page after it
+            assertThat(cursor == null).as("last page").isEqualTo(ids.size() >= PUBLIC_EVENTS);
+        } while (cursor != null);
+        assertThat(pages).isEqualTo((PUBLIC_EVENTS + size - 1) / size);
+        return ids;
+    }
+
+    private JsonNode page(MockHttpServletRequestBuilder request) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(request).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private record Seeded(UUID id, LocalDateTime start) {
+    }
+}
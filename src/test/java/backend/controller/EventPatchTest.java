@@ -0,0 +1,147 @@
+package backend.controller;
+
+import backend.model.EventImage;
+import backend.model.Events;
+import backend.repository.EventRepository;
+import backend.support.PostgresIntegrationTest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * JSON Merge Patch on an event writes only what changed: one caption edit among twenty images rewrites
+ * one row, not the whole collection.
+ */
+@AutoConfigureMockMvc
+class EventPatchTest extends PostgresIntegrationTest {
+    private static final String MERGE_PATCH = "application/merge-patch+json";
+    private static final int IMAGES = 20;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID eventId;
+
+    @BeforeEach
+    void createEvent() {
+        eventRepository.deleteAllInBatch();
+        Events event = new Events();
+        event.setTitle("Photo walk");
+        event.setDescription("Bring a camera");
+        event.setLocation("Old harbour");
+        event.setStart(LocalDateTime.now().plusDays(5));
+        event.setIsPublic(true);
+        event.setUserId(UUID.randomUUID());
+        List<EventImage> images = new ArrayList<>();
+        for (int i = 0; i < IMAGES; i++) {
+            EventImage image = new EventImage();
+            image.setImageUrl("https://cdn.eventy.test/walk/" + i + ".jpg");
+            image.setCaption("Stop " + i);
+            image.setIsPrimary(i == 0);
+            image.setOrder(i);
+            images.add(image);
+        }
+        event.setImages(images);
+        eventId = eventRepository.save(event).getId();
+    }
+
+    @Test
+    void captionEditTouchesOneImageRow() throws Exception {
+        ArrayNode images = objectMapper.valueToTree(images());
+        ((ObjectNode) images.get(7)).put("caption", "Lighthouse");
+        String body = objectMapper.createObjectNode().set("images", images).toString();
+        Map<Integer, String> before = rowLocations();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(patch("/api/events/" + eventId).contentType(MERGE_PATCH).content(body)).andExpect(status().isOk());
+
+        // A recreate deletes every image row and inserts them again; an update rewrites only the rows it
+        // changes, and only those get a new physical location
+        assertThat(statistics.getCollectionRecreateCount()).isZero();
+        Map<Integer, String> after = rowLocations();
+        assertThat(after.keySet()).isEqualTo(before.keySet());
+        assertThat(after).containsAllEntriesOf(withoutKey(before, 7));
+        assertThat(after.get(7)).isNotEqualTo(before.get(7));
+        List<EventImage> written = images();
+        assertThat(written).hasSize(IMAGES);
+        assertThat(written.get(7).getCaption()).isEqualTo("Lighthouse");
+        assertThat(written.get(8).getCaption()).isEqualTo("Stop 8");
+    }
+
+    @Test
+    void patchChangesOnlyTheGivenMembers() throws Exception {
+        mockMvc.perform(patch("/api/events/" + eventId).contentType(MERGE_PATCH)
+                        .content("{\"title\":\"Night photo walk\",\"description\":null}"))
+                .andExpect(status().isOk());
+
+        Events written = eventRepository.findById(eventId).orElseThrow();
+        assertThat(written.getTitle()).isEqualTo("Night photo walk");
+        assertThat(written.getDescription()).isNull();
+        assertThat(written.getLocation()).isEqualTo("Old harbour");
+        assertThat(images()).hasSize(IMAGES);
+    }
+
+    @Test
+    void invalidPatchIsRejected() throws Exception {
+        mockMvc.perform(patch("/api/events/" + eventId).contentType(MERGE_PATCH).content("{\"title\":null}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/api/events/" + UUID.randomUUID()).contentType(MERGE_PATCH).content("{\"title\":\"x\"}"))
+                .andExpect(status().isNotFound());
+    }
+
+    private Map<Integer, String> rowLocations() {
+        Map<Integer, String> locations = new HashMap<>();
+        jdbcTemplate.query("SELECT position, ctid::text AS location FROM event_images WHERE event_id = ?",
+                row -> {
+                    locations.put(row.getInt("position"), row.getString("location"));
+                }, eventId);
+        return locations;
+    }
+
+    private static Map<Integer, String> withoutKey(Map<Integer, String> map, int key) {
+        Map<Integer, String> copy = new HashMap<>(map);
+        copy.remove(key);
+        return copy;
+    }
+
+    private List<EventImage> images() {
+        return transactionTemplate.execute(status -> List.copyOf(eventRepository.findById(eventId).orElseThrow().getImages()));
+    }
+}
@@ -0,0 +1,79 @@
+package backend.controller;
+
+import backend.model.Events;
+import backend.repository.EventRepository;
+import backend.support.PostgresIntegrationTest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The calendar window returns exactly the public events overlapping it, including ones that started
+ * earlier and ones without an end.
+ */
+@AutoConfigureMockMvc
+class EventRangeTest extends PostgresIntegrationTest {
+    private static final LocalDateTime MAY = LocalDateTime.of(2030, 5, 1, 0, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void seedEvents() {
+        eventRepository.deleteAllInBatch();
+        eventRepository.save(event("Spans April into May", MAY.minusDays(3), MAY.plusDays(2), true));
+        eventRepository.save(event("Mid May, no end", MAY.plusDays(14), null, true));
+        eventRepository.save(event("Ends as May starts", MAY.minusDays(1), MAY, true));
+        eventRepository.save(event("Starts as June starts", MAY.plusMonths(1), MAY.plusMonths(1).plusHours(2), true));
+        eventRepository.save(event("Private in May", MAY.plusDays(10), MAY.plusDays(11), false));
+        eventRepository.save(event("Last year", MAY.minusYears(1), MAY.minusYears(1).plusHours(3), true));
+    }
+
+    @Test
+    void returnsPublicEventsOverlappingTheWindow() throws Exception {
+        String body = mockMvc.perform(get("/api/events/range").param("from", "2030-05-01").param("to", "2030-06-01"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode events = objectMapper.readTree(body);
+
+        assertThat(events).extracting(event -> event.get("title").asText())
+                .containsExactly("Spans April into May", "Ends as May starts", "Mid May, no end");
+    }
+
+    @Test
+    void rejectsInvertedAndOversizedWindows() throws Exception {
+        mockMvc.perform(get("/api/events/range").param("from", "2030-06-01").param("to", "2030-05-01"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/events/range").param("from", "2030-01-01").param("to", "2031-01-01"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/events/range").param("from", "May").param("to", "2030-06-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static Events event(String title, LocalDateTime start, LocalDateTime end, boolean isPublic) {
+        Events event = new Events();
+        event.setTitle(title);
+        event.setStart(start);
+        event.setEnd(end);
+        event.setIsPublic(isPublic);
+        event.setUserId(UUID.randomUUID());
+        return event;
+    }
+}
@@ -0,0 +1,152 @@
+package backend.controller;
+
+import backend.model.Events;
+import backend.repository.EventRepository;
+import backend.support.PostgresIntegrationTest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Full-text search reads the generated search_vector column: title hits outrank description hits,
+ * private events stay hidden, the cursor walks every match exactly once, a capped search always
+ * ranks the same matches and a match deleted mid-search is left out.
+ */
+@AutoConfigureMockMvc
+class EventSearchTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoSpyBean
+    private EventRepository eventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void seedEvents() {
+        eventRepository.deleteAllInBatch();
+        List<Events> events = new ArrayList<>();
+        events.add(event("Jazz night", "Live music downtown", true));
+        events.add(event("Open mic", "Poetry, then jazz until late", true));
+        events.add(event("Private jazz rehearsal", "Band members only", false));
+        events.add(event("Chess club", "Weekly games", true));
+        for (int i = 0; i < 5; i++) {
+            events.add(event("Festival day " + i, "Food trucks and concerts", true));
+        }
+        eventRepository.saveAll(events);
+    }
+
+    @Test
+    void ranksTitleMatchesFirstAndHidesPrivateEvents() throws Exception {
+        JsonNode page = search("jazz", null);
+
+        assertThat(page.get("items")).extracting(item -> item.get("title").asText())
+                .containsExactly("Jazz night", "Open mic");
+        assertThat(page.get("nextCursor").isNull()).isTrue();
+    }
+
+    @Test
+    void cursorWalksEveryMatchOnce() throws Exception {
+        List<UUID> seen = new ArrayList<>();
+        JsonNode page = search("festival concerts", null);
+        while (true) {
+            page.get("items").forEach(item -> seen.add(UUID.fromString(item.get("id").asText())));
+            if (page.get("nextCursor").isNull()) {
+                break;
+            }
+            page = search("festival concerts", page.get("nextCursor").asText());
+        }
+
+        assertThat(seen).hasSize(5).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void cappedSearchRanksTheSameSampleEveryTime() {
+        List<UUID> festivalIds = eventRepository.findAll().stream()
+                .filter(event -> event.getTitle().startsWith("Festival"))
+                .map(Events::getId)
+                // Postgres orders uuids by their bytes, which matches their text form and not UUID.compareTo
+                .sorted(Comparator.comparing(UUID::toString))
+                .toList();
+
+        for (int run = 0; run < 3; run++) {
+            List<UUID> hits = eventRepository.searchPublicEvents("festival", 3, 10).stream()
+                    .map(EventRepository.SearchHitRow::getId)
+                    .toList();
+            assertThat(hits).containsExactlyInAnyOrderElementsOf(festivalIds.subList(0, 3));
+        }
+    }
+
+    @Test
+    void hitDeletedBeforeItLoadsIsLeftOut() throws Exception {
+        UUID jazzNight = eventRepository.findAll().stream()
+                .filter(event -> event.getTitle().equals("Jazz night"))
+                .findFirst().orElseThrow().getId();
+        TransactionTemplate separate = new TransactionTemplate(transactionManager);
+        separate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // A spied repository proxy has no real method to call; its default answer delegates to the proxy
+        Answer<?> load = mockingDetails(eventRepository).getMockCreationSettings().getDefaultAnswer();
+        // Deleted and committed after the ranked search, before the hits are loaded
+        doAnswer(invocation -> {
+            separate.executeWithoutResult(status -> jdbcTemplate.update("DELETE FROM events WHERE id = ?", jazzNight));
+            return load.answer(invocation);
+        }).when(eventRepository).findAllById(any());
+
+        JsonNode page = search("jazz", null);
+
+        assertThat(page.get("items")).extracting(item -> item.get("title").asText()).containsExactly("Open mic");
+    }
+
+    @Test
+    void rejectsBlankQuery() throws Exception {
+        mockMvc.perform(get("/api/events/search").param("q", " ")).andExpect(status().isBadRequest());
+    }
+
+    private JsonNode search(String query, String cursor) throws Exception {
+        String body = mockMvc.perform(get("/api/events/search").param("q", query).param("size", "2").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private static Events event(String title, String description, boolean isPublic) {
+        Events event = new Events();
+        event.setTitle(title);
+        event.setDescription(description);
+        event.setStart(LocalDateTime.now().plusDays(1));
+        event.setIsPublic(isPublic);
+        event.setUserId(UUID.randomUUID());
+        return event;
+    }
+}
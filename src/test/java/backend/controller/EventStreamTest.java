@@ -0,0 +1,142 @@
+package backend.controller;
+
+import backend.cache.CatalogVersion;
+import backend.event.EventChangedEvent.EventSnapshot;
+import backend.event.EventStreamBroadcaster;
+import backend.model.Events;
+import backend.service.EventService;
+import backend.support.PostgresIntegrationTest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@code /api/dashboard/stream} delivers committed writes to public events through Postgres
+ * LISTEN/NOTIFY, including notifications sent by another node, which also invalidate this node's state,
+ * and nothing for a write that rolls back or only touches private events.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class EventStreamTest extends PostgresIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventStreamBroadcaster broadcaster;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final BlockingQueue<String> data = new LinkedBlockingQueue<>();
+    private Stream<String> lines;
+
+    @BeforeEach
+    void openStream() throws Exception {
+        int before = broadcaster.subscriberCount();
+        HttpResponse<Stream<String>> response = client.send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/dashboard/stream")).GET().build(),
+                HttpResponse.BodyHandlers.ofLines());
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Type")).hasValueSatisfying(
+                type -> assertThat(type).startsWith("text/event-stream"));
+        lines = response.body();
+        Thread reader = new Thread(() -> lines.filter(line -> line.startsWith("data:"))
+                .forEach(line -> data.add(line.substring("data:".length()))));
+        reader.setDaemon(true);
+        reader.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (broadcaster.subscriberCount() <= before && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(broadcaster.subscriberCount()).isGreaterThan(before);
+    }
+
+    @AfterEach
+    void closeStream() {
+        lines.close();
+    }
+
+    @Test
+    void committedWritesToPublicEventsArePushed() throws Exception {
+        UUID hidden = eventService.createEvent(event("Staff meeting", false)).getId();
+        UUID id = eventService.createEvent(event("Night market", true)).getId();
+
+        assertThat(data.poll(5, TimeUnit.SECONDS)).isEqualTo("{\"id\":\"" + id + "\",\"type\":\"CREATED\"}");
+
+        Events madePrivate = event("Night market", false);
+        eventService.updateEvent(id, madePrivate);
+        assertThat(data.poll(5, TimeUnit.SECONDS)).isEqualTo("{\"id\":\"" + id + "\",\"type\":\"DELETED\"}");
+        eventService.deleteEvent(hidden);
+        assertThat(data.poll(500, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void notificationsFromOtherNodesArePushedAndInvalidateThisNode() throws Exception {
+        UUID rolledBack = UUID.randomUUID();
+        transactionTemplate.executeWithoutResult(status -> {
+            notifyFromOtherNode(rolledBack);
+            status.setRollbackOnly();
+        });
+        long version = catalogVersion.current().version();
+        UUID committed = UUID.randomUUID();
+        transactionTemplate.executeWithoutResult(status -> notifyFromOtherNode(committed));
+
+        assertThat(data.poll(5, TimeUnit.SECONDS)).isEqualTo("{\"id\":\"" + committed + "\",\"type\":\"DELETED\"}");
+        assertThat(catalogVersion.current().version()).isGreaterThan(version);
+    }
+
+    private void notifyFromOtherNode(UUID id) {
+        EventSnapshot before = new EventSnapshot(true, "music", List.of("rock"), LocalDateTime.now().plusDays(2), null);
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(Map.of("node", "other-node", "id", id, "type", "DELETED", "before", before));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        jdbcTemplate.query("SELECT pg_notify('event_changes', ?)", rs -> null, payload);
+    }
+
+    private static Events event(String title, boolean isPublic) {
+        Events event = new Events();
+        event.setTitle(title);
+        event.setStart(LocalDateTime.now().plusDays(2));
+        event.setIsPublic(isPublic);
+        event.setUserId(UUID.randomUUID());
+        return event;
+    }
+}
@@ -0,0 +1,118 @@
+package backend.controller;
+
+import backend.model.EventImage;
+import backend.model.Events;
+import backend.repository.EventRepository;
+import backend.support.PostgresIntegrationTest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * {@code ?view=summary} and {@code ?view=calendar} return only their fields, page like the full view and
+ * are a fraction of its size.
+ */
+@AutoConfigureMockMvc
+class EventViewTest extends PostgresIntegrationTest {
+    private static final int EVENT_COUNT = 30;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void seedEvents() {
+        eventRepository.deleteAllInBatch();
+        List<Events> events = new ArrayList<>();
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            Events event = new Events();
+            event.setTitle("Meetup " + i);
+            event.setDescription("Talks, demos and pizza. ".repeat(40));
+            event.setStart(LocalDateTime.now().plusDays(i + 1).withNano(0));
+            event.setEnd(event.getStart().plusHours(2));
+            event.setLocation("Hall " + i % 3);
+            event.setCategory("tech");
+            event.setColor("#3366ff");
+            event.setContactEmail("host@eventy.test");
+            event.setTags(List.of("java", "postgres", "meetup"));
+            event.setIsPublic(true);
+            event.setAttendees(i);
+            event.setUserId(UUID.randomUUID());
+            List<EventImage> images = new ArrayList<>();
+            for (int j = 0; j < 3; j++) {
+                EventImage image = new EventImage();
+                image.setImageUrl("https://cdn.eventy.test/meetups/" + i + "/" + j + ".jpg");
+                image.setCaption("Photo " + j);
+                image.setOrder(j);
+                images.add(image);
+            }
+            event.setImages(images);
+            events.add(event);
+        }
+        eventRepository.saveAll(events);
+    }
+
+    @Test
+    void summaryCarriesCardFieldsOnly() throws Exception {
+        String full = body("/api/events?size=" + EVENT_COUNT);
+        String summary = body("/api/events?size=" + EVENT_COUNT + "&view=summary");
+
+        JsonNode first = objectMapper.readTree(summary).get("items").get(0);
+        assertThat(first.get("title").asText()).isEqualTo("Meetup 0");
+        assertThat(first.get("start").asText()).isEqualTo(objectMapper.readTree(full).get("items").get(0).get("start").asText());
+        List<String> fields = new ArrayList<>();
+        first.fieldNames().forEachRemaining(fields::add);
+        assertThat(fields).containsExactlyInAnyOrder("id", "title", "start", "end", "location", "category", "color",
+                "thumbnail", "attendees", "maxAttendees");
+        assertThat(summary.length()).isLessThan(full.length() / 5);
+    }
+
+    @Test
+    void calendarViewPagesAndServesRanges() throws Exception {
+        List<String> titles = new ArrayList<>();
+        String cursor = null;
+        do {
+            JsonNode page = objectMapper.readTree(body("/api/dashboard/events?size=7&view=calendar"
+                    + (cursor == null ? "" : "&cursor=" + cursor)));
+            page.get("items").forEach(item -> titles.add(item.get("title").asText()));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (cursor != null);
+        assertThat(titles).hasSize(EVENT_COUNT).doesNotHaveDuplicates();
+
+        LocalDate today = LocalDate.now();
+        JsonNode range = objectMapper.readTree(body("/api/events/range?view=calendar&from=" + today
+                + "&to=" + today.plusDays(11)));
+        assertThat(range).hasSize(10);
+        assertThat(range.get(0).has("allDay")).isTrue();
+        assertThat(range.get(0).has("location")).isFalse();
+    }
+
+    @Test
+    void unknownViewIsRejected() throws Exception {
+        mockMvc.perform(get("/api/events").param("view", "thumbnail")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/dashboard/events").param("view", "thumbnail")).andExpect(status().isBadRequest());
+    }
+
+    private String body(String uri) throws Exception {
+        return mockMvc.perform(get(uri)).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+    }
+}
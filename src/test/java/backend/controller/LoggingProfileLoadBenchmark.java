@@ -0,0 +1,151 @@
+package backend.controller;
+
+import backend.model.Events;
+import backend.repository.EventRepository;
+import backend.support.RequiresPostgres;
+import backend.support.TestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Same read load under each logging setup, keeping the log levels the profile configures (unlike
+ * {@link backend.support.PostgresIntegrationTest}, which quiets them). {@link DevLoggingLoadBenchmark}
+ * runs the default properties, {@link ProdLoggingLoadBenchmark} the {@code prod} profile. A share of the
+ * requests asks for events that do not exist, the path whose error logging is rate limited. Run with
+ * {@code mvn test -Pbenchmark -Dtest='*LoggingLoadBenchmark' -Dsurefire.redirectTestOutputToFile=true}
+ * so the log volume goes to target/surefire-reports rather than the terminal.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@RequiresPostgres
+abstract class LoggingProfileLoadBenchmark {
+    private static final Duration RUN_TIME = Duration.ofSeconds(20);
+    private static final int CLIENTS = 32;
+    private static final int EVENTS = 500;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .executor(Executors.newFixedThreadPool(2))
+            .build();
+    private final List<UUID> eventIds = new ArrayList<>();
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", TestDatabase::url);
+        registry.add("spring.datasource.username", TestDatabase::username);
+        registry.add("spring.datasource.password", TestDatabase::password);
+    }
+
+    @BeforeEach
+    void seedEvents() {
+        eventRepository.deleteAllInBatch();
+        List<Events> events = new ArrayList<>();
+        for (int i = 0; i < EVENTS; i++) {
+            Events event = new Events();
+            event.setTitle("Event " + i);
+            event.setStart(LocalDateTime.now().plusHours(i + 1));
+            event.setIsPublic(true);
+            event.setCategory(i % 2 == 0 ? "music" : "sport");
+            event.setTags(List.of("tag" + i % 10));
+            event.setAttendees(0);
+            event.setUserId(UUID.randomUUID());
+            events.add(event);
+        }
+        eventRepository.saveAll(events).forEach(event -> eventIds.add(event.getId()));
+    }
+
+    @Test
+    void readLoadThroughput() throws Exception {
+        Map<String, Supplier<String>> routes = Map.of(
+                "GET /events", () -> "/api/events?size=20",
+                "GET /events/{id}", () -> "/api/events/" + eventIds.get(ThreadLocalRandom.current().nextInt(eventIds.size())),
+                "GET /events/{id} missing", () -> "/api/events/" + UUID.randomUUID(),
+                "GET /events/category", () -> "/api/events/category/music",
+                "GET /dashboard/subscriptions", () -> "/api/dashboard/subscriptions?userId=" + UUID.randomUUID());
+        List<String> names = List.copyOf(routes.keySet());
+        Map<String, ConcurrentLinkedQueue<Long>> latencies = new ConcurrentHashMap<>();
+        names.forEach(name -> latencies.put(name, new ConcurrentLinkedQueue<>()));
+        AtomicInteger failures = new AtomicInteger();
+        long deadline = System.nanoTime() + RUN_TIME.toNanos();
+
+        CountDownLatch finished = new CountDownLatch(CLIENTS);
+        for (int i = 0; i < CLIENTS; i++) {
+            new Runnable() {
+                @Override
+                public void run() {
+                    if (System.nanoTime() >= deadline) {
+                        finished.countDown();
+                        return;
+                    }
+                    String name = names.get(ThreadLocalRandom.current().nextInt(names.size()));
+                    HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + routes.get(name).get()))
+                            .timeout(Duration.ofSeconds(60))
+                            .GET()
+                            .build();
+                    long started = System.nanoTime();
+                    client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                        if (response != null && response.statusCode() < 500) {
+                            latencies.get(name).add(System.nanoTime() - started);
+                        } else {
+                            failures.incrementAndGet();
+                        }
+                        run();
+                    });
+                }
+            }.run();
+        }
+        assertThat(finished.await(RUN_TIME.toSeconds() + 60, TimeUnit.SECONDS)).isTrue();
+
+        int total = latencies.values().stream().mapToInt(ConcurrentLinkedQueue::size).sum();
+        System.out.printf("%s: %.1f req/s with %d clients for %ds, %d failed%n", getClass().getSimpleName(),
+                total / (double) RUN_TIME.toSeconds(), CLIENTS, RUN_TIME.toSeconds(), failures.get());
+        for (String name : names.stream().sorted().toList()) {
+            long[] sorted = latencies.get(name).stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            System.out.printf("  %-28s %7.1f req/s  p50 %7.1f ms  p99 %7.1f ms%n", name,
+                    sorted.length / (double) RUN_TIME.toSeconds(), millis(sorted, 0.50), millis(sorted, 0.99));
+        }
+        assertThat(failures.get()).isZero();
+    }
+
+    private static double millis(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)] / 1e6;
+    }
+}
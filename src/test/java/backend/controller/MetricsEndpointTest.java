@@ -0,0 +1,45 @@
+package backend.controller;
+
+import backend.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The Prometheus scrape carries each layer of a request: the route, the service method, the repository
+ * query, the pool, the second-level cache regions, and exceptions the controllers handle themselves.
+ */
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsEndpointTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void scrapeExposesRouteServiceRepositoryAndPoolTimers() throws Exception {
+        mockMvc.perform(get("/api/events").param("size", "5")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/events/" + UUID.randomUUID())).andExpect(status().isNotFound());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+                .contains("http_server_requests_seconds_bucket{")
+                .containsPattern("service_calls_seconds_bucket\\{[^}]*class=\"backend.service.EventService\"[^}]*method=\"getPublicEvents\"")
+                .containsPattern("spring_data_repository_invocations_seconds_bucket\\{[^}]*repository=\"EventRepository\"")
+                .containsPattern("hikaricp_connections_acquire_seconds_bucket\\{[^}]*pool=\"HikariPool-Backend\"")
+                .contains("hikaricp_connections_pending{")
+                .containsPattern("hibernate_second_level_cache_requests_total\\{[^}]*region=\"backend.model.Events\"")
+                .containsPattern("http_server_handled_exceptions_total\\{[^}]*exception=\"EntityNotFoundException\"[^}]*uri=\"/api/events/\\{id}\"");
+    }
+}
@@ -0,0 +1,7 @@
+package backend.controller;
+
+/**
+ * {@link ThreadModeLoadBenchmark} on Tomcat's platform worker pool, the default mode.
+ */
+class PlatformThreadsLoadBenchmark extends ThreadModeLoadBenchmark {
+}
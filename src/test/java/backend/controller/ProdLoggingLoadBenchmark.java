@@ -0,0 +1,11 @@
+package backend.controller;
+
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * {@link LoggingProfileLoadBenchmark} with the {@code prod} profile: async appender, WARN for the
+ * application and frameworks, SQL tracing for sampled requests only.
+ */
+@ActiveProfiles("prod")
+class ProdLoggingLoadBenchmark extends LoggingProfileLoadBenchmark {
+}
@@ -0,0 +1,130 @@
+package backend.controller;
+
+import backend.repository.AppUserRepository;
+import backend.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sign-in storm next to ordinary browsing. Reports sign-in throughput and the latency of the browsing
+ * requests, which should stay flat because BCrypt no longer holds Tomcat workers or pooled connections.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class SignInLoadBenchmark extends PostgresIntegrationTest {
+    private static final Duration RUN_TIME = Duration.ofSeconds(20);
+    private static final int SIGN_IN_CLIENTS = 32;
+    private static final int BROWSE_CLIENTS = 4;
+    private static final String EMAIL = "benchmark@eventy.test";
+    private static final String PASSWORD = "correct-horse-battery";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    @BeforeEach
+    void signUp() throws Exception {
+        appUserRepository.findByEmail(EMAIL).ifPresent(appUserRepository::delete);
+        HttpResponse<String> response = post("/api/users/auth/signup", """
+                {"email":"%s","password":"%s","firstName":"Bench","lastName":"Mark","role":"USER"}
+                """.formatted(EMAIL, PASSWORD));
+        assertThat(response.statusCode()).isEqualTo(201);
+    }
+
+    @Test
+    void signInThroughputAndBrowseLatency() throws Exception {
+        AtomicInteger signIns = new AtomicInteger();
+        AtomicInteger busy = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        long deadline = System.nanoTime() + RUN_TIME.toNanos();
+        String body = """
+                {"email":"%s","password":"%s"}""".formatted(EMAIL, PASSWORD);
+
+        ExecutorService clients = Executors.newFixedThreadPool(SIGN_IN_CLIENTS + BROWSE_CLIENTS);
+        List<Future<List<Long>>> browsers = new ArrayList<>();
+        for (int i = 0; i < SIGN_IN_CLIENTS; i++) {
+            clients.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    int status = post("/api/users/auth/signin", body).statusCode();
+                    if (status == 200) {
+                        signIns.incrementAndGet();
+                    } else if (status == 503) {
+                        busy.incrementAndGet();
+                    } else {
+                        failures.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        for (int i = 0; i < BROWSE_CLIENTS; i++) {
+            browsers.add(clients.submit(() -> {
+                List<Long> latencies = new ArrayList<>();
+                while (System.nanoTime() < deadline) {
+                    long started = System.nanoTime();
+                    HttpResponse<String> response = get("/api/events?size=20");
+                    latencies.add(System.nanoTime() - started);
+                    assertThat(response.statusCode()).isEqualTo(200);
+                }
+                return latencies;
+            }));
+        }
+        List<Long> all = new ArrayList<>();
+        for (Future<List<Long>> browser : browsers) {
+            all.addAll(browser.get());
+        }
+        clients.shutdown();
+
+        long[] sorted = all.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        System.out.printf("Sign-in: %.1f/s (%d ok, %d busy, %d failed) over %ds with %d clients%n",
+                signIns.get() / (double) RUN_TIME.toSeconds(), signIns.get(), busy.get(), failures.get(),
+                RUN_TIME.toSeconds(), SIGN_IN_CLIENTS);
+        System.out.printf("Browse:  %d requests, p50 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                sorted.length, millis(sorted, 0.50), millis(sorted, 0.99), sorted[sorted.length - 1] / 1e6);
+
+        assertThat(signIns.get()).isPositive();
+        assertThat(failures.get()).isZero();
+    }
+
+    private HttpResponse<String> post(String path, String json) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static double millis(long[] sorted, double quantile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)] / 1e6;
+    }
+}
@@ -0,0 +1,143 @@
+package backend.controller;
+
+import backend.model.Events;
+import backend.repository.EventRepository;
+import backend.repository.UserSubscriptionRepository;
+import backend.service.SubscriptionService;
+import backend.support.PostgresIntegrationTest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * {@code POST /api/dashboard/subscriptions:batch} applies what it can and reports an outcome per
+ * event: one unknown or full event does not fail the rest, and repeated ids take one seat.
+ */
+@AutoConfigureMockMvc
+class SubscriptionBatchTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserSubscriptionRepository userSubscriptionRepository;
+
+    @Autowired
+    private SubscriptionService subscriptionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final UUID userId = UUID.randomUUID();
+    private UUID open;
+    private UUID full;
+    private UUID joined;
+
+    @BeforeEach
+    void createEvents() {
+        eventRepository.deleteAllInBatch();
+        open = createEvent("Open", null);
+        full = createEvent("Full", 1);
+        joined = createEvent("Joined", 10);
+        subscriptionService.subscribeToEvent(UUID.randomUUID(), full);
+        subscriptionService.subscribeToEvent(userId, joined);
+    }
+
+    @Test
+    void partialFailuresAreReportedPerEvent() throws Exception {
+        UUID unknown = UUID.randomUUID();
+
+        Map<UUID, String> outcomes = outcomes(batch(List.of(open, open, full, unknown, joined), List.of())
+                .andExpect(status().isOk()));
+
+        assertThat(outcomes).containsOnly(
+                Map.entry(open, "SUBSCRIBED"),
+                Map.entry(full, "EVENT_FULL"),
+                Map.entry(unknown, "EVENT_NOT_FOUND"),
+                Map.entry(joined, "ALREADY_SUBSCRIBED"));
+        assertThat(attendees(open)).as("a repeated id takes one seat").isEqualTo(1);
+        assertThat(attendees(full)).isEqualTo(1);
+        assertThat(attendees(joined)).isEqualTo(1);
+        assertThat(subscribedEventIds()).containsExactlyInAnyOrder(open.toString(), joined.toString());
+    }
+
+    @Test
+    void unsubscribesReportWhatWasHeld() throws Exception {
+        Map<UUID, String> outcomes = outcomes(batch(List.of(open), List.of(joined, full)).andExpect(status().isOk()));
+
+        assertThat(outcomes).containsOnly(
+                Map.entry(open, "SUBSCRIBED"),
+                Map.entry(joined, "UNSUBSCRIBED"),
+                Map.entry(full, "NOT_SUBSCRIBED"));
+        assertThat(attendees(joined)).isZero();
+        assertThat(attendees(full)).as("another user's seat is kept").isEqualTo(1);
+        assertThat(subscribedEventIds()).containsExactly(open.toString());
+    }
+
+    @Test
+    void eventInBothListsIsRejectedWithoutChanges() throws Exception {
+        batch(List.of(open), List.of(open)).andExpect(status().isBadRequest());
+
+        assertThat(userSubscriptionRepository.existsByUserIdAndEventId(userId, open)).isFalse();
+    }
+
+    private ResultActions batch(List<UUID> subscribe, List<UUID> unsubscribe) throws Exception {
+        Map<String, Object> body = new HashMap<>();
+        body.put("userId", userId.toString());
+        body.put("subscribe", subscribe);
+        body.put("unsubscribe", unsubscribe);
+        return mockMvc.perform(post("/api/dashboard/subscriptions:batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)));
+    }
+
+    private Map<UUID, String> outcomes(ResultActions result) throws Exception {
+        JsonNode rows = objectMapper.readTree(result.andReturn().getResponse().getContentAsString());
+        Map<UUID, String> outcomes = new HashMap<>();
+        rows.forEach(row -> assertThat(outcomes.put(UUID.fromString(row.get("eventId").asText()), row.get("outcome").asText()))
+                .as("one outcome per event").isNull());
+        return outcomes;
+    }
+
+    private List<String> subscribedEventIds() throws Exception {
+        String body = mockMvc.perform(get("/api/dashboard/subscriptions").param("userId", userId.toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return List.of(objectMapper.readValue(body, String[].class));
+    }
+
+    private int attendees(UUID eventId) {
+        return eventRepository.findById(eventId).orElseThrow().getAttendees();
+    }
+
+    private UUID createEvent(String title, Integer maxAttendees) {
+        Events event = new Events();
+        event.setTitle(title);
+        event.setStart(LocalDateTime.now().plusDays(7));
+        event.setIsPublic(true);
+        event.setAttendees(0);
+        event.setMaxAttendees(maxAttendees);
+        event.setUserId(UUID.randomUUID());
+        return eventRepository.save(event).getId();
+    }
+}
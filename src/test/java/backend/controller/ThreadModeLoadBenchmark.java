@@ -0,0 +1,155 @@
+package backend.controller;
+
+import backend.model.Events;
+import backend.repository.EventRepository;
+import backend.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives many concurrent clients at the read endpoints that reach the database and prints per-route
+ * throughput and latency. {@link PlatformThreadsLoadBenchmark} and {@link VirtualThreadsLoadBenchmark}
+ * run the same load so the two thread modes can be compared side by side. Run with
+ * {@code mvn test -Pbenchmark,java21} to include the virtual-thread run.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "logging.level.backend=WARN",
+        "logging.level.org.springframework=WARN",
+        "logging.level.org.springframework.web=WARN",
+        "logging.level.org.hibernate=WARN",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "logging.level.com.zaxxer.hikari=WARN"
+})
+abstract class ThreadModeLoadBenchmark extends PostgresIntegrationTest {
+    private static final Duration RUN_TIME = Duration.ofSeconds(20);
+    private static final int CLIENTS = 400;
+    private static final int EVENTS = 500;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .executor(Executors.newFixedThreadPool(2))
+            .build();
+    private final List<UUID> eventIds = new ArrayList<>();
+
+    @BeforeEach
+    void seedEvents() {
+        eventRepository.deleteAllInBatch();
+        List<Events> events = new ArrayList<>();
+        for (int i = 0; i < EVENTS; i++) {
+            Events event = new Events();
+            event.setTitle("Event " + i);
+            event.setStart(LocalDateTime.now().plusHours(i + 1));
+            event.setIsPublic(true);
+            event.setCategory(i % 2 == 0 ? "music" : "sport");
+            event.setTags(List.of("tag" + i % 10));
+            event.setAttendees(0);
+            event.setUserId(UUID.randomUUID());
+            events.add(event);
+        }
+        eventRepository.saveAll(events).forEach(event -> eventIds.add(event.getId()));
+    }
+
+    @Test
+    void mixedReadLoad() throws Exception {
+        Map<String, Supplier<String>> routes = Map.of(
+                "GET /events", () -> "/api/events?size=20",
+                "GET /events/{id}", () -> "/api/events/" + eventIds.get(ThreadLocalRandom.current().nextInt(eventIds.size())),
+                "GET /events/category", () -> "/api/events/category/music",
+                "GET /events/upcoming", () -> "/api/events/upcoming?limit=100",
+                "GET /dashboard/subscriptions", () -> "/api/dashboard/subscriptions?userId=" + UUID.randomUUID());
+        List<String> names = List.copyOf(routes.keySet());
+        Map<String, ConcurrentLinkedQueue<Long>> latencies = new ConcurrentHashMap<>();
+        names.forEach(name -> latencies.put(name, new ConcurrentLinkedQueue<>()));
+        AtomicInteger busy = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        long deadline = System.nanoTime() + RUN_TIME.toNanos();
+
+        // Closed loop of CLIENTS in-flight requests driven by two threads, so on small machines the load
+        // generator does not outnumber the server's threads for CPU
+        CountDownLatch finished = new CountDownLatch(CLIENTS);
+        for (int i = 0; i < CLIENTS; i++) {
+            new Runnable() {
+                @Override
+                public void run() {
+                    if (System.nanoTime() >= deadline) {
+                        finished.countDown();
+                        return;
+                    }
+                    String name = names.get(ThreadLocalRandom.current().nextInt(names.size()));
+                    long started = System.nanoTime();
+                    send(routes.get(name).get()).whenComplete((status, error) -> {
+                        if (status != null && status == 200) {
+                            latencies.get(name).add(System.nanoTime() - started);
+                        } else if (status != null && status == 503) {
+                            busy.incrementAndGet();
+                        } else {
+                            failures.incrementAndGet();
+                        }
+                        run();
+                    });
+                }
+            }.run();
+        }
+        assertThat(finished.await(RUN_TIME.toSeconds() + 60, TimeUnit.SECONDS)).isTrue();
+
+        System.out.printf("%s: %d clients for %ds, %d busy (503), %d failed%n",
+                getClass().getSimpleName(), CLIENTS, RUN_TIME.toSeconds(), busy.get(), failures.get());
+        for (String name : names.stream().sorted().toList()) {
+            long[] sorted = latencies.get(name).stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            System.out.printf("  %-28s %7.1f req/s  p50 %7.1f ms  p99 %7.1f ms%n", name,
+                    sorted.length / (double) RUN_TIME.toSeconds(), millis(sorted, 0.50), millis(sorted, 0.99));
+        }
+        assertThat(latencies.values()).allSatisfy(route -> assertThat(route).isNotEmpty());
+    }
+
+    private CompletableFuture<Integer> send(String path) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).thenApply(HttpResponse::statusCode);
+    }
+
+    private static double millis(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)] / 1e6;
+    }
+}
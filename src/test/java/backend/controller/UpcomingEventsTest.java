@@ -0,0 +1,72 @@
+package backend.controller;
+
+import backend.model.Events;
+import backend.repository.EventRepository;
+import backend.support.PostgresIntegrationTest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Limits larger than the upcoming index are read from the database and capped at the page size limit.
+ */
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {"events.upcoming.index-size=5", "events.page.max-size=8"})
+class UpcomingEventsTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void seedEvents() {
+        eventRepository.deleteAllInBatch();
+        List<Events> events = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            Events event = new Events();
+            event.setTitle("Event " + i);
+            event.setStart(LocalDateTime.now().plusDays(i + 1));
+            event.setIsPublic(true);
+            event.setUserId(UUID.randomUUID());
+            events.add(event);
+        }
+        eventRepository.saveAll(events);
+    }
+
+    @Test
+    void limitsAreServedUpToTheCap() throws Exception {
+        assertThat(upcoming(3)).isEqualTo(3);
+        assertThat(upcoming(7)).isEqualTo(7);
+        assertThat(upcoming(100_000)).isEqualTo(8);
+    }
+
+    @Test
+    void nonPositiveLimitIsRejected() throws Exception {
+        mockMvc.perform(get("/api/events/upcoming").param("limit", "0")).andExpect(status().isBadRequest());
+    }
+
+    private int upcoming(int limit) throws Exception {
+        String body = mockMvc.perform(get("/api/events/upcoming").param("limit", String.valueOf(limit)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).size();
+    }
+}
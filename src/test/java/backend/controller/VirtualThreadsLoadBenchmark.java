@@ -0,0 +1,14 @@
+package backend.controller;
+
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * {@link ThreadModeLoadBenchmark} with the {@code virtual-threads} profile: requests on virtual threads
+ * and database checkouts bounded by the connection limiter.
+ */
+@ActiveProfiles("virtual-threads")
+@EnabledForJreRange(min = JRE.JAVA_21)
+class VirtualThreadsLoadBenchmark extends ThreadModeLoadBenchmark {
+}
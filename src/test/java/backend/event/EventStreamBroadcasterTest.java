@@ -0,0 +1,115 @@
+package backend.event;
+
+import backend.exception.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventStreamBroadcasterTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EventStreamBroadcaster broadcaster = new EventStreamBroadcaster(meterRegistry,
+            5, 64, 1, Duration.ofMillis(200), Duration.ofMinutes(1), Duration.ofSeconds(3), Duration.ofMinutes(1));
+
+    @AfterEach
+    void shutdown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void concurrentSubscribesNeverExceedTheLimit() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> attempts = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            attempts.add(pool.submit(() -> {
+                start.await();
+                try {
+                    broadcaster.subscribe();
+                } catch (ServiceBusyException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> attempt : attempts) {
+            attempt.get(10, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertThat(broadcaster.subscriberCount()).isEqualTo(5);
+        assertThat(rejected.get()).isEqualTo(59);
+    }
+
+    @Test
+    void stalledSubscriberDoesNotHoldUpTheOthers() throws Exception {
+        CountDownLatch unblock = new CountDownLatch(1);
+        RecordingEmitter stalled = new RecordingEmitter(unblock);
+        RecordingEmitter healthy = new RecordingEmitter(null);
+        broadcaster.subscribe(stalled);
+        // The only sender is now stuck on the stalled client's first frame
+        assertThat(stalled.sendStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        broadcaster.subscribe(healthy);
+
+        broadcaster.broadcast("changed", "{}");
+
+        // The reconnect delay, then the event
+        assertThat(healthy.frames.poll(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(healthy.frames.poll(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(broadcaster.subscriberCount()).isEqualTo(1);
+        assertThat(meterRegistry.counter("events.stream.dropped").count()).isEqualTo(1);
+
+        unblock.countDown();
+        assertThat(stalled.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(stalled.frames).hasSize(1);
+        assertThat(healthy.completed.getCount()).isEqualTo(1);
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<Set<DataWithMediaType>> frames = new LinkedBlockingQueue<>();
+        private final CountDownLatch sendStarted = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private final CountDownLatch unblock;
+
+        RecordingEmitter(CountDownLatch unblock) {
+            this.unblock = unblock;
+        }
+
+        // Stands in for a write to a client that stopped reading until unblock opens
+        @Override
+        public void send(Set<DataWithMediaType> frame) throws IOException {
+            sendStarted.countDown();
+            if (unblock != null) {
+                try {
+                    unblock.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            frames.add(frame);
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+    }
+}
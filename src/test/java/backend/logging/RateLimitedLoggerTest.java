@@ -0,0 +1,53 @@
+package backend.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitedLoggerTest {
+    private final AtomicLong now = new AtomicLong();
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private RateLimitedLogger rateLimited;
+
+    @BeforeEach
+    void setUp() {
+        Logger logger = (Logger) LoggerFactory.getLogger("rate-limited-test");
+        appender.start();
+        logger.addAppender(appender);
+        rateLimited = new RateLimitedLogger(logger, 2, Duration.ofSeconds(60), now::get);
+    }
+
+    @Test
+    void dropsMessagesPastTheLimitAndReportsThemInTheNextInterval() {
+        for (int i = 0; i < 5; i++) {
+            rateLimited.warn("not-found", "Event {} not found", i);
+        }
+        now.addAndGet(Duration.ofSeconds(60).toNanos());
+        rateLimited.warn("not-found", "Event {} not found", 5);
+
+        assertThat(appender.list).extracting(ILoggingEvent::getFormattedMessage).containsExactly(
+                "Event 0 not found",
+                "Event 1 not found",
+                "3 similar messages suppressed for not-found",
+                "Event 5 not found");
+    }
+
+    @Test
+    void keysHaveSeparateBudgets() {
+        for (int i = 0; i < 3; i++) {
+            rateLimited.warn("get", "get {}", i);
+            rateLimited.warn("delete", "delete {}", i);
+        }
+
+        assertThat(appender.list).extracting(ILoggingEvent::getFormattedMessage)
+                .containsExactly("get 0", "delete 0", "get 1", "delete 1");
+    }
+}
@@ -0,0 +1,159 @@
+package backend.security;
+
+import backend.config.JwtConfig;
+import backend.util.JwtUtil;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the production decoder against a local JWKS endpoint instead of Supabase.
+ */
+class CachingJwtDecoderTest {
+    private static final String ISSUER = "https://auth.test/auth/v1";
+
+    private final AtomicInteger jwksRequests = new AtomicInteger();
+    private HttpServer jwksServer;
+    private RSAKey signingKey;
+    private CachingJwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        signingKey = new RSAKeyGenerator(2048).keyID("test-key").generate();
+        byte[] jwks = new JWKSet(signingKey.toPublicJWK()).toString().getBytes(StandardCharsets.UTF_8);
+        jwksServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        jwksServer.createContext("/jwks", exchange -> {
+            jwksRequests.incrementAndGet();
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, jwks.length);
+            exchange.getResponseBody().write(jwks);
+            exchange.close();
+        });
+        jwksServer.start();
+
+        JwtConfig config = new JwtConfig(null);
+        String jwkSetUri = "http://127.0.0.1:" + jwksServer.getAddress().getPort() + "/jwks";
+        decoder = config.jwtDecoder(
+                config.jwkSource(jwkSetUri, Duration.ofMinutes(15), Duration.ofSeconds(5), Duration.ofMinutes(1), Duration.ofHours(2)),
+                new JwtUtil(),
+                new SimpleMeterRegistry(), ISSUER, List.of("authenticated"), 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jwksServer.stop(0);
+    }
+
+    @Test
+    void repeatTokenIsServedFromCacheWithoutRefetchingKeys() throws Exception {
+        String token = sign(ISSUER, Instant.now().plusSeconds(300));
+
+        Jwt first = decoder.decode(token);
+        Jwt second = decoder.decode(token);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.getSubject()).isEqualTo("7a1f6b5e-3c2d-4e8f-9a0b-1c2d3e4f5a6b");
+        assertThat(jwksRequests.get()).isEqualTo(1);
+        assertThat(decoder.size()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectedTokensAreNotCached() throws Exception {
+        String token = sign("https://elsewhere.test", Instant.now().plusSeconds(300));
+
+        assertThatThrownBy(() -> decoder.decode(token)).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> decoder.decode(token)).isInstanceOf(JwtException.class);
+        assertThat(decoder.size()).isZero();
+    }
+
+    @Test
+    void tamperedSignatureIsRejectedEvenAfterTheGenuineTokenIsCached() throws Exception {
+        String token = sign(ISSUER, Instant.now().plusSeconds(300));
+        decoder.decode(token);
+
+        String tampered = token.substring(0, token.length() - 4) + (token.endsWith("AAAA") ? "BBBB" : "AAAA");
+
+        assertThatThrownBy(() -> decoder.decode(tampered)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void cachedTokenIsVerifiedAgainOnceItExpires() {
+        Instant expiresAt = Instant.parse("2030-01-01T00:00:00Z");
+        Jwt jwt = Jwt.withTokenValue("t").header("alg", "RS256").subject("u").expiresAt(expiresAt).build();
+        AtomicInteger verifications = new AtomicInteger();
+        MutableClock clock = new MutableClock(expiresAt.minusSeconds(10));
+        CachingJwtDecoder caching = new CachingJwtDecoder(token -> {
+            verifications.incrementAndGet();
+            return jwt;
+        }, 100, clock, new SimpleMeterRegistry());
+
+        caching.decode("t");
+        caching.decode("t");
+        clock.now = expiresAt;
+        caching.decode("t");
+
+        assertThat(verifications.get()).isEqualTo(2);
+    }
+
+    private String sign(String issuer, Instant expiresAt) throws Exception {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject("7a1f6b5e-3c2d-4e8f-9a0b-1c2d3e4f5a6b")
+                .issuer(issuer)
+                .audience("authenticated")
+                .issueTime(new Date())
+                .expirationTime(Date.from(expiresAt))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(signingKey.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(signingKey));
+        return jwt.serialize();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
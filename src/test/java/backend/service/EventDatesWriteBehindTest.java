@@ -0,0 +1,220 @@
+package backend.service;
+
+import backend.event.EventChangedEvent;
+import backend.event.EventChangedEvent.ChangeType;
+import backend.model.Events;
+import backend.repository.EventRepository;
+import backend.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Queued date updates collapse into one versioned write per event, and a full update that lands first
+ * wins over them, as well as over updates queued on top of them. An update that fails to write is retried without holding back the rest of its batch. The scheduled flush is pushed out so each test flushes explicitly.
+ */
+@RecordApplicationEvents
+@TestPropertySource(properties = "events.dates.flush-interval=PT1H")
+class EventDatesWriteBehindTest extends PostgresIntegrationTest {
+    private static final LocalDateTime START = LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.MINUTES);
+
+    @Autowired
+    private EventDatesWriteBehind writeBehind;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID eventId;
+
+    @BeforeEach
+    void createEvent() {
+        writeBehind.flush();
+        eventRepository.deleteAllInBatch();
+        eventId = saveEvent("Team offsite");
+    }
+
+    private UUID saveEvent(String title) {
+        Events event = new Events();
+        event.setTitle(title);
+        event.setStart(START);
+        event.setIsPublic(true);
+        event.setUserId(UUID.randomUUID());
+        return eventRepository.save(event).getId();
+    }
+
+    @Test
+    void dragCollapsesIntoOneWrite() {
+        for (int minutes = 15; minutes <= 150; minutes += 15) {
+            writeBehind.submit(eventId, START.plusMinutes(minutes), START.plusMinutes(minutes + 60), 0L);
+        }
+        assertThat(eventRepository.findById(eventId).orElseThrow().getStart()).isEqualTo(START);
+
+        writeBehind.flush();
+
+        Events written = eventRepository.findById(eventId).orElseThrow();
+        assertThat(written.getStart()).isEqualTo(START.plusMinutes(150));
+        assertThat(written.getEnd()).isEqualTo(START.plusMinutes(210));
+        assertThat(written.getVersion()).isEqualTo(1L);
+        assertThat(applicationEvents.stream(EventChangedEvent.class))
+                .filteredOn(event -> event.type() == ChangeType.DATES_CHANGED)
+                .singleElement()
+                .satisfies(event -> {
+                    assertThat(event.before().start()).isEqualTo(START);
+                    assertThat(event.after().start()).isEqualTo(START.plusMinutes(150));
+                });
+    }
+
+    @Test
+    void fullUpdateBeforeFlushWins() {
+        writeBehind.submit(eventId, START.plusDays(1), null, null);
+        Events event = eventRepository.findById(eventId).orElseThrow();
+        event.setTitle("Team offsite (moved)");
+        event.setStart(START.plusDays(2));
+        eventRepository.save(event);
+
+        writeBehind.flush();
+
+        Events written = eventRepository.findById(eventId).orElseThrow();
+        assertThat(written.getStart()).isEqualTo(START.plusDays(2));
+        assertThat(written.getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void staleVersionIsRejected() {
+        writeBehind.submit(eventId, START.plusHours(1), null, 0L);
+        writeBehind.flush();
+
+        // The acknowledged version is accepted, the one it replaced is not
+        writeBehind.submit(eventId, START.plusHours(2), null, 1L);
+        assertThatThrownBy(() -> writeBehind.submit(eventId, START.plusHours(3), null, 0L))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+    }
+
+    @Test
+    void failingRowDoesNotDropTheOthersAndIsRetried() {
+        UUID broken = saveEvent("Broken");
+        rejectUpdatesToBrokenEvents();
+        try {
+            writeBehind.submit(eventId, START.plusHours(1), null, 0L);
+            writeBehind.submit(broken, START.plusHours(2), null, 0L);
+
+            writeBehind.flush();
+
+            assertThat(eventRepository.findById(eventId).orElseThrow().getStart()).isEqualTo(START.plusHours(1));
+            assertThat(eventRepository.findById(broken).orElseThrow().getStart()).isEqualTo(START);
+            assertThat(writeBehind.isQueued(eventId)).isFalse();
+            assertThat(writeBehind.isQueued(broken)).as("failed update is queued again").isTrue();
+        } finally {
+            allowUpdates();
+        }
+
+        writeBehind.flush();
+
+        Events retried = eventRepository.findById(broken).orElseThrow();
+        assertThat(retried.getStart()).isEqualTo(START.plusHours(2));
+        assertThat(retried.getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void updateThatKeepsFailingIsDroppedAfterMaxAttempts() {
+        UUID broken = saveEvent("Broken");
+        rejectUpdatesToBrokenEvents();
+        try {
+            writeBehind.submit(broken, START.plusHours(2), null, 0L);
+            for (int attempt = 1; attempt <= EventDatesWriteBehind.MAX_ATTEMPTS; attempt++) {
+                assertThat(writeBehind.isQueued(broken)).isTrue();
+                writeBehind.flush();
+            }
+            assertThat(writeBehind.isQueued(broken)).isFalse();
+        } finally {
+            allowUpdates();
+        }
+    }
+
+    @Test
+    void updateQueuedOnAConflictingWriteIsDropped() throws Exception {
+        writeBehind.submit(eventId, START.plusHours(1), null, 0L);
+        CountDownLatch putStarted = new CountDownLatch(1);
+        CountDownLatch releasePut = new CountDownLatch(1);
+        // A full update holds the row and moves it to version 1 while the queued dates are being written
+        CompletableFuture<Void> put = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE events SET start = ?, version = version + 1 WHERE id = ?", START.plusDays(5), eventId);
+            putStarted.countDown();
+            await(releasePut);
+        }));
+        assertThat(putStarted.await(10, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Void> flush = CompletableFuture.runAsync(writeBehind::flush);
+        waitForLockWait();
+
+        // Based on version 1, the version the in-flight write would have produced
+        assertThat(writeBehind.submit(eventId, START.plusHours(2), null, null).version()).isEqualTo(2L);
+        releasePut.countDown();
+        put.get(10, TimeUnit.SECONDS);
+        flush.get(10, TimeUnit.SECONDS);
+        writeBehind.flush();
+
+        assertThat(writeBehind.isQueued(eventId)).isFalse();
+        assertThat(jdbcTemplate.queryForObject("SELECT start FROM events WHERE id = ?", LocalDateTime.class, eventId))
+                .isEqualTo(START.plusDays(5));
+        assertThat(jdbcTemplate.queryForObject("SELECT version FROM events WHERE id = ?", Long.class, eventId)).isEqualTo(1L);
+    }
+
+    private void waitForLockWait() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (jdbcTemplate.queryForObject("SELECT count(*) FROM pg_stat_activity "
+                + "WHERE datname = current_database() AND wait_event_type = 'Lock'", Integer.class) == 0) {
+            assertThat(System.nanoTime()).as("flush waits for the row lock").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Makes every write to an event titled "Broken" fail, as a row the database refuses would
+    private void rejectUpdatesToBrokenEvents() {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.execute("""
+                CREATE FUNCTION reject_broken() RETURNS trigger AS $$
+                BEGIN
+                    IF NEW.title = 'Broken' THEN RAISE EXCEPTION 'rejected'; END IF;
+                    RETURN NEW;
+                END $$ LANGUAGE plpgsql;
+                CREATE TRIGGER reject_broken BEFORE UPDATE ON events FOR EACH ROW EXECUTE FUNCTION reject_broken();
+                """));
+    }
+
+    private void allowUpdates() {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.execute(
+                "DROP TRIGGER reject_broken ON events; DROP FUNCTION reject_broken()"));
+    }
+}
@@ -0,0 +1,157 @@
+package backend.service;
+
+import backend.config.SecondLevelCacheConfig;
+import backend.model.EventImage;
+import backend.model.Events;
+import backend.model.Users;
+import backend.repository.AppUserRepository;
+import backend.repository.EventRepository;
+import backend.support.PostgresIntegrationTest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Events, their images and users are read from the second-level cache once loaded, and every write path
+ * leaves the cache holding what the database holds: entity updates replace the entries, deletes and
+ * native seat changes evict them.
+ */
+class SecondLevelCacheTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private AppUserService appUserService;
+
+    @Autowired
+    private SubscriptionService subscriptionService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Cache cache;
+    private UUID eventId;
+
+    @BeforeEach
+    void createEvent() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        statistics = sessionFactory.getStatistics();
+        cache = sessionFactory.getCache();
+        eventId = eventRepository.save(event("Harbour cleanup", "before.jpg")).getId();
+        cache.evictAllRegions();
+    }
+
+    @Test
+    void eventReadsHitTheCacheAndUpdatesReplaceTheEntries() {
+        readEvent();
+        long eventHits = hits(SecondLevelCacheConfig.EVENTS);
+        long imageHits = hits(SecondLevelCacheConfig.EVENT_IMAGES);
+
+        readEvent();
+        assertThat(hits(SecondLevelCacheConfig.EVENTS)).isGreaterThan(eventHits);
+        assertThat(hits(SecondLevelCacheConfig.EVENT_IMAGES)).isGreaterThan(imageHits);
+
+        eventService.updateEvent(eventId, event("Harbour cleanup, moved indoors", "after.jpg"));
+        Events updated = readEvent();
+        assertThat(updated.getTitle()).isEqualTo("Harbour cleanup, moved indoors");
+        assertThat(updated.getImages()).extracting(EventImage::getImageUrl).containsExactly("after.jpg");
+    }
+
+    @Test
+    void deleteEvictsTheEvent() {
+        readEvent();
+        assertThat(cache.containsEntity(Events.class, eventId)).isTrue();
+
+        eventService.deleteEvent(eventId);
+
+        // The key keeps a lock entry until it times out, which no read is served from
+        assertThatThrownBy(() -> eventService.getEventById(eventId)).isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    void seatChangesEvictTheEvent() {
+        readEvent();
+        Users user = appUserRepository.save(user("seat@eventy.test"));
+
+        subscriptionService.subscribeToEvent(user.getId(), eventId);
+
+        assertThat(cache.containsEntity(Events.class, eventId)).isFalse();
+        assertThat(readEvent().getAttendees()).isEqualTo(1);
+    }
+
+    @Test
+    void userUpdateReplacesTheEntry() {
+        UUID userId = appUserRepository.save(user("cached@eventy.test")).getId();
+        appUserService.getAppUser(userId);
+        long userHits = hits(SecondLevelCacheConfig.USERS);
+        appUserService.getAppUser(userId);
+        assertThat(hits(SecondLevelCacheConfig.USERS)).isGreaterThan(userHits);
+
+        Users changes = user("cached@eventy.test");
+        changes.setFirstName("Renamed");
+        changes.setPassword(null);
+        appUserService.updateAppUser(userId, changes).join();
+
+        assertThat(appUserService.getAppUser(userId).getFirstName()).isEqualTo("Renamed");
+    }
+
+    // Reads the event and its images in one session, as a detail request does with open-in-view
+    private Events readEvent() {
+        return transactionTemplate.execute(status -> {
+            Events event = eventService.getEventById(eventId);
+            event.getImages().size();
+            return event;
+        });
+    }
+
+    private long hits(String region) {
+        return statistics.getDomainDataRegionStatistics(region).getHitCount();
+    }
+
+    private static Events event(String title, String imageUrl) {
+        Events event = new Events();
+        event.setTitle(title);
+        event.setStart(LocalDateTime.now().plusDays(4));
+        event.setIsPublic(true);
+        event.setUserId(UUID.randomUUID());
+        EventImage image = new EventImage();
+        image.setImageUrl(imageUrl);
+        image.setOrder(0);
+        event.setImages(new ArrayList<>(List.of(image)));
+        return event;
+    }
+
+    private static Users user(String email) {
+        Users user = new Users();
+        user.setFirstName("Cache");
+        user.setLastName("Test");
+        user.setEmail(UUID.randomUUID() + "." + email);
+        user.setPassword("not-a-real-hash");
+        user.setRole("USER");
+        return user;
+    }
+}
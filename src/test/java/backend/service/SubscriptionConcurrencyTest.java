@@ -0,0 +1,108 @@
+package backend.service;
+
+import backend.exception.EventFullException;
+import backend.model.Events;
+import backend.repository.EventRepository;
+import backend.repository.UserSubscriptionRepository;
+import backend.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SubscriptionConcurrencyTest extends PostgresIntegrationTest {
+    private static final int CAPACITY = 150;
+    private static final int SUBSCRIBERS = 2000;
+
+    @Autowired
+    private SubscriptionService subscriptionService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserSubscriptionRepository userSubscriptionRepository;
+
+    private UUID eventId;
+
+    @BeforeEach
+    void createEvent() {
+        eventRepository.deleteAllInBatch();
+        Events event = new Events();
+        event.setTitle("Launch party");
+        event.setStart(LocalDateTime.now().plusDays(7));
+        event.setIsPublic(true);
+        event.setAttendees(0);
+        event.setMaxAttendees(CAPACITY);
+        event.setUserId(UUID.randomUUID());
+        eventId = eventRepository.save(event).getId();
+    }
+
+    @Test
+    void concurrentSubscribersNeverOverbook() throws Exception {
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Callable<Void>> subscribes = new ArrayList<>();
+        for (int i = 0; i < SUBSCRIBERS; i++) {
+            subscribes.add(() -> {
+                try {
+                    subscriptionService.subscribeToEvent(UUID.randomUUID(), eventId);
+                    accepted.incrementAndGet();
+                } catch (EventFullException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            });
+        }
+
+        runConcurrently(subscribes);
+
+        assertThat(accepted).hasValue(CAPACITY);
+        assertThat(rejected).hasValue(SUBSCRIBERS - CAPACITY);
+        assertThat(eventRepository.findById(eventId).orElseThrow().getAttendees()).isEqualTo(CAPACITY);
+        assertThat(userSubscriptionRepository.count()).isEqualTo(CAPACITY);
+    }
+
+    @Test
+    void repeatedSubscribesBySameUserTakeOneSeat() throws Exception {
+        UUID userId = UUID.randomUUID();
+        List<Callable<Void>> subscribes = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            subscribes.add(() -> {
+                subscriptionService.subscribeToEvent(userId, eventId);
+                return null;
+            });
+        }
+
+        runConcurrently(subscribes);
+        subscriptionService.unsubscribeFromEvent(userId, eventId);
+        subscriptionService.unsubscribeFromEvent(userId, eventId);
+
+        assertThat(eventRepository.findById(eventId).orElseThrow().getAttendees()).isZero();
+        assertThat(userSubscriptionRepository.count()).isZero();
+    }
+
+    private static void runConcurrently(List<Callable<Void>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        try {
+            for (Future<Void> result : executor.invokeAll(tasks)) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package backend.support;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.UUID;
+
+/**
+ * Deterministic bulk data for load tests, written with {@code generate_series} so a million events take
+ * seconds rather than hours through JPA. Ids are {@code md5('event-' || n)::uuid} and
+ * {@code md5('user-' || n)::uuid}, so the test can address any seeded row without reading it back.
+ * <p>
+ * User {@code u} is subscribed to the events {@code (u * 97 + k * 20011) mod events} for
+ * {@code k = 0, 1, ...} until {@code subscriptions} rows exist. 20011 is prime, so the pairs never repeat
+ * unless the event count is a multiple of it.
+ */
+public final class LoadTestDataset {
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestDataset.class);
+    private static final String USER_EMAIL_DOMAIN = "@loadtest.eventy.test";
+    private static final int USER_STRIDE = 97;
+    private static final int SUBSCRIPTION_STRIDE = 20011;
+
+    public static final int CATEGORIES = 200;
+    public static final int TAGS = 1000;
+
+    private final int events;
+    private final int users;
+    private final int subscriptions;
+
+    public LoadTestDataset(int events, int users, int subscriptions) {
+        if (events < 1 || users < 1 || subscriptions < 0) {
+            throw new IllegalArgumentException("Load-test scale must be positive");
+        }
+        this.events = events;
+        this.users = users;
+        this.subscriptions = subscriptions;
+    }
+
+    /**
+     * Seeds the database unless it already holds exactly this dataset. Reseeding truncates users,
+     * events and subscriptions, so point the tests at a database reserved for them.
+     */
+    public void ensureSeeded(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, String passwordHash) {
+        if (isSeeded(jdbcTemplate)) {
+            logger.info("Reusing load-test dataset: {} events, {} users, {} subscriptions", events, users, subscriptions);
+            return;
+        }
+        long started = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("TRUNCATE user_subscriptions, event_images, events, users CASCADE");
+            jdbcTemplate.update("""
+                    INSERT INTO users (id, first_name, last_name, email, password, role)
+                    SELECT md5('user-' || g)::uuid, 'Load', 'User ' || g, 'user' || g || ?, ?, 'USER'
+                    FROM generate_series(0, ? - 1) g
+                    """, USER_EMAIL_DOMAIN, passwordHash, users);
+            // Starts spread evenly over the past and the coming year; one in ten events is private
+            jdbcTemplate.update("""
+                    INSERT INTO events (id, title, description, start, event_end, location, category, organizer,
+                                        contact_email, attendees, is_public, tags, created_at, updated_at, user_id)
+                    SELECT md5('event-' || g)::uuid, 'Event ' || g, 'Seeded load-test event number ' || g,
+                           t.start, t.start + interval '3 hours', 'Venue ' || (g % 500), 'category-' || (g % ?),
+                           'Organizer ' || (g % 1000), 'organizer' || (g % 1000) || '@eventy.test', 0, g % 10 <> 0,
+                           ARRAY['tag-' || (g % ?), 'tag-' || ((g * 7 + 3) % ?)], now(), now(),
+                           md5('user-' || (g % ?))::uuid
+                    FROM generate_series(0, ? - 1) g,
+                         LATERAL (SELECT localtimestamp - interval '365 days'
+                                         + g * (730.0 * 86400 / ?) * interval '1 second' AS start) t
+                    """, CATEGORIES, TAGS, TAGS, users, events, events);
+            jdbcTemplate.update("""
+                    INSERT INTO event_images (event_id, image_url, caption, is_primary, "order", position)
+                    SELECT md5('event-' || g)::uuid, 'https://cdn.eventy.test/events/' || g || '.jpg', 'Cover', true, 0, 0
+                    FROM generate_series(0, ? - 1) g
+                    """, events);
+            jdbcTemplate.update("""
+                    INSERT INTO user_subscriptions (user_id, event_id, subscribed_at)
+                    SELECT md5('user-' || (g % ?))::uuid,
+                           md5('event-' || (((g % ?)::bigint * ? + (g / ?)::bigint * ?) % ?))::uuid, now()
+                    FROM generate_series(0, ? - 1) g
+                    ON CONFLICT DO NOTHING
+                    """, users, users, USER_STRIDE, users, SUBSCRIPTION_STRIDE, events, subscriptions);
+            jdbcTemplate.update("""
+                    UPDATE events e SET attendees = s.attendees
+                    FROM (SELECT event_id, count(*) AS attendees FROM user_subscriptions GROUP BY event_id) s
+                    WHERE e.id = s.event_id
+                    """);
+        });
+        jdbcTemplate.execute("ANALYZE");
+        logger.info("Seeded {} events, {} users and {} subscriptions in {} s",
+                events, users, subscriptions, (System.nanoTime() - started) / 1_000_000_000);
+    }
+
+    public int events() {
+        return events;
+    }
+
+    public int users() {
+        return users;
+    }
+
+    public UUID eventId(int n) {
+        return md5Uuid("event-" + n);
+    }
+
+    public UUID userId(int n) {
+        return md5Uuid("user-" + n);
+    }
+
+    /**
+     * The public event nearest to {@code n}; seeded events whose number is a multiple of ten are private.
+     */
+    public int publicEvent(int n) {
+        return n % 10 == 0 ? (n + 1) % events : n;
+    }
+
+    /**
+     * Whether the seeded user {@code user} is subscribed to the seeded event {@code event}.
+     */
+    public boolean isSeededSubscription(int user, int event) {
+        for (long row = user; row < subscriptions; row += users) {
+            long k = row / users;
+            if ((user * (long) USER_STRIDE + k * SUBSCRIPTION_STRIDE) % events == event) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isSeeded(JdbcTemplate jdbcTemplate) {
+        Long seededEvents = jdbcTemplate.queryForObject("SELECT count(*) FROM events", Long.class);
+        Long seededUsers = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM users WHERE email LIKE ?", Long.class, "%" + USER_EMAIL_DOMAIN);
+        Long seededSubscriptions = jdbcTemplate.queryForObject("SELECT count(*) FROM user_subscriptions", Long.class);
+        return seededEvents == events && seededUsers == users && seededSubscriptions == subscriptions
+                && Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM events WHERE id = ?)", Boolean.class, eventId(events - 1)));
+    }
+
+    // Same bytes as Postgres md5(text)::uuid
+    private static UUID md5Uuid(String value) {
+        try {
+            ByteBuffer digest = ByteBuffer.wrap(MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8)));
+            return new UUID(digest.getLong(), digest.getLong());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 not available", e);
+        }
+    }
+}
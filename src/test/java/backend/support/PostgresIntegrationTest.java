@@ -0,0 +1,26 @@
+package backend.support;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Base class for tests that need a real Postgres. Skipped when no database is reachable, see
+ * {@link TestDatabase}.
+ */
+@SpringBootTest
+@RequiresPostgres
+public abstract class PostgresIntegrationTest {
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", TestDatabase::url);
+        registry.add("spring.datasource.username", TestDatabase::username);
+        registry.add("spring.datasource.password", TestDatabase::password);
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
+        registry.add("logging.level.org.springframework", () -> "INFO");
+        registry.add("logging.level.org.hibernate.SQL", () -> "INFO");
+        registry.add("logging.level.org.hibernate.type.descriptor.sql.BasicBinder", () -> "INFO");
+    }
+}
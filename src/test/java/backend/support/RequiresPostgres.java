@@ -0,0 +1,19 @@
+package backend.support;
+
+import org.junit.jupiter.api.condition.EnabledIf;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Skips the annotated test class (and its subclasses) when {@link TestDatabase} has no database.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+@EnabledIf("backend.support.TestDatabase#isAvailable")
+public @interface RequiresPostgres {
+}
@@ -0,0 +1,67 @@
+package backend.support;
+
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Postgres used by the integration tests. Points at {@code EVENTY_TEST_DB_URL} when set (any local
+ * Postgres 14+ instance), otherwise starts a throwaway container if Docker is available.
+ */
+public final class TestDatabase {
+    private static final String URL_VARIABLE = "EVENTY_TEST_DB_URL";
+    private static final String LOAD_TEST_URL_VARIABLE = "EVENTY_LOADTEST_DB_URL";
+    private static PostgreSQLContainer<?> container;
+
+    private TestDatabase() {
+    }
+
+    public static boolean isAvailable() {
+        return externalUrl() != null || DockerClientFactory.instance().isDockerAvailable();
+    }
+
+    public static String url() {
+        return externalUrl() != null ? externalUrl() : container().getJdbcUrl();
+    }
+
+    public static String username() {
+        return externalUrl() != null ? setting("EVENTY_TEST_DB_USERNAME", "postgres") : container().getUsername();
+    }
+
+    public static String password() {
+        return externalUrl() != null ? setting("EVENTY_TEST_DB_PASSWORD", "postgres") : container().getPassword();
+    }
+
+    /**
+     * Database for load tests: {@code EVENTY_LOADTEST_DB_URL} when set, because their seed is too large to
+     * share with the integration tests, which empty the tables they use. Same credentials as above.
+     */
+    public static String loadTestUrl() {
+        String url = setting(LOAD_TEST_URL_VARIABLE, null);
+        return url != null ? url : url();
+    }
+
+    public static String loadTestUsername() {
+        return setting(LOAD_TEST_URL_VARIABLE, null) != null ? setting("EVENTY_TEST_DB_USERNAME", "postgres") : username();
+    }
+
+    public static String loadTestPassword() {
+        return setting(LOAD_TEST_URL_VARIABLE, null) != null ? setting("EVENTY_TEST_DB_PASSWORD", "postgres") : password();
+    }
+
+    private static String externalUrl() {
+        return setting(URL_VARIABLE, null);
+    }
+
+    private static String setting(String name, String defaultValue) {
+        String value = System.getProperty(name, System.getenv(name));
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    private static synchronized PostgreSQLContainer<?> container() {
+        if (container == null) {
+            container = new PostgreSQLContainer<>("postgres:16-alpine");
+            container.start();
+        }
+        return container;
+    }
+}